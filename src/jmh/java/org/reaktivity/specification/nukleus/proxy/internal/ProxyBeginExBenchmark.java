@@ -0,0 +1,218 @@
+/**
+ * Copyright 2016-2021 The Reaktivity Project
+ *
+ * The Reaktivity Project licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package org.reaktivity.specification.nukleus.proxy.internal;
+
+import static java.nio.charset.StandardCharsets.US_ASCII;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.reaktivity.specification.nukleus.proxy.internal.types.ProxyAddressProtocol.STREAM;
+
+import java.util.function.Consumer;
+
+import org.agrona.DirectBuffer;
+import org.agrona.MutableDirectBuffer;
+import org.agrona.concurrent.UnsafeBuffer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.reaktivity.specification.nukleus.proxy.internal.types.ProxyAddressFW;
+import org.reaktivity.specification.nukleus.proxy.internal.types.ProxyAddressFamily;
+import org.reaktivity.specification.nukleus.proxy.internal.types.ProxyInfoFW;
+import org.reaktivity.specification.nukleus.proxy.internal.types.stream.ProxyBeginExFW;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@Fork(3)
+@Warmup(iterations = 5, time = 1, timeUnit = SECONDS)
+@Measurement(iterations = 5, time = 1, timeUnit = SECONDS)
+@OutputTimeUnit(SECONDS)
+public class ProxyBeginExBenchmark
+{
+    private static final int PROXY_TYPE_ID = 0x01;
+
+    private static final DirectBuffer INET4_SOURCE = new UnsafeBuffer(new byte[] { (byte) 192, (byte) 168, 0, 1 });
+    private static final DirectBuffer INET4_DESTINATION = new UnsafeBuffer(new byte[] { (byte) 192, (byte) 168, 0, (byte) 254 });
+    private static final DirectBuffer INET6_SOURCE = new UnsafeBuffer(new byte[] {
+        (byte) 0xfd, 0x12, 0x34, 0x56, 0x78, (byte) 0x9a, 0x00, 0x01, 0, 0, 0, 0, 0, 0, 0, 0x01 });
+    private static final DirectBuffer INET6_DESTINATION = new UnsafeBuffer(new byte[] {
+        (byte) 0xfd, 0x12, 0x34, 0x56, 0x78, (byte) 0x9a, 0x00, 0x01, 0, 0, 0, 0, 0, 0, 0, (byte) 0xfe });
+    private static final DirectBuffer UNIX_SOURCE = unixPath("/tmp/client.sock");
+    private static final DirectBuffer UNIX_DESTINATION = unixPath("/tmp/server.sock");
+
+    private final MutableDirectBuffer decodeBuffer = new UnsafeBuffer(new byte[8192]);
+    private final MutableDirectBuffer encodeBuffer = new UnsafeBuffer(new byte[8192]);
+    private final ProxyBeginExFW.Builder beginExRW = new ProxyBeginExFW.Builder();
+    private final ProxyBeginExFW beginExRO = new ProxyBeginExFW();
+
+    private final Consumer<ProxyInfoFW> onInfo = this::onInfo;
+    private final Consumer<ProxyInfoFW.Builder>[] infoMutators = infoMutators();
+
+    private Consumer<ProxyAddressFW.Builder> address;
+    private Consumer<ProxyInfoFW.Builder>[] infos;
+    private int decodeLimit;
+    private int infosSize;
+
+    @Param({ "INET", "INET4", "INET6", "UNIX", "NONE" })
+    public ProxyAddressFamily family;
+
+    @Param({ "0", "1", "5", "20" })
+    public int infoCount;
+
+    @Setup
+    @SuppressWarnings("unchecked")
+    public void init()
+    {
+        switch (family)
+        {
+        case INET:
+            address = this::inet;
+            break;
+        case INET4:
+            address = this::inet4;
+            break;
+        case INET6:
+            address = this::inet6;
+            break;
+        case UNIX:
+            address = this::unix;
+            break;
+        default:
+            address = this::none;
+            break;
+        }
+
+        infos = new Consumer[infoCount];
+        for (int i = 0; i < infoCount; i++)
+        {
+            infos[i] = infoMutators[i % infoMutators.length];
+        }
+
+        decodeLimit = encode(decodeBuffer);
+    }
+
+    @Benchmark
+    public ProxyBeginExFW tryWrap()
+    {
+        return beginExRO.tryWrap(decodeBuffer, 0, decodeLimit);
+    }
+
+    @Benchmark
+    public int forEachInfo()
+    {
+        infosSize = 0;
+        beginExRO.wrap(decodeBuffer, 0, decodeLimit).infos().forEach(onInfo);
+        return infosSize;
+    }
+
+    @Benchmark
+    public int encode()
+    {
+        return encode(encodeBuffer);
+    }
+
+    private int encode(
+        MutableDirectBuffer buffer)
+    {
+        beginExRW.wrap(buffer, 0, buffer.capacity())
+                 .typeId(PROXY_TYPE_ID)
+                 .address(address);
+
+        for (int i = 0; i < infos.length; i++)
+        {
+            beginExRW.infosItem(infos[i]);
+        }
+
+        return beginExRW.build().limit();
+    }
+
+    private void onInfo(
+        ProxyInfoFW info)
+    {
+        infosSize += info.sizeof();
+    }
+
+    private void inet(
+        ProxyAddressFW.Builder address)
+    {
+        address.inet(i -> i.protocol(p -> p.set(STREAM))
+                           .source("192.168.0.1")
+                           .destination("192.168.0.254")
+                           .sourcePort(32768)
+                           .destinationPort(443));
+    }
+
+    private void inet4(
+        ProxyAddressFW.Builder address)
+    {
+        address.inet4(i -> i.protocol(p -> p.set(STREAM))
+                            .source(INET4_SOURCE, 0, INET4_SOURCE.capacity())
+                            .destination(INET4_DESTINATION, 0, INET4_DESTINATION.capacity())
+                            .sourcePort(32768)
+                            .destinationPort(443));
+    }
+
+    private void inet6(
+        ProxyAddressFW.Builder address)
+    {
+        address.inet6(i -> i.protocol(p -> p.set(STREAM))
+                            .source(INET6_SOURCE, 0, INET6_SOURCE.capacity())
+                            .destination(INET6_DESTINATION, 0, INET6_DESTINATION.capacity())
+                            .sourcePort(32768)
+                            .destinationPort(443));
+    }
+
+    private void unix(
+        ProxyAddressFW.Builder address)
+    {
+        address.unix(u -> u.protocol(p -> p.set(STREAM))
+                           .source(UNIX_SOURCE, 0, UNIX_SOURCE.capacity())
+                           .destination(UNIX_DESTINATION, 0, UNIX_DESTINATION.capacity()));
+    }
+
+    private void none(
+        ProxyAddressFW.Builder address)
+    {
+        address.none(n -> {});
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Consumer<ProxyInfoFW.Builder>[] infoMutators()
+    {
+        return new Consumer[] {
+            (Consumer<ProxyInfoFW.Builder>) i -> i.alpn("echo"),
+            (Consumer<ProxyInfoFW.Builder>) i -> i.authority("example.com"),
+            (Consumer<ProxyInfoFW.Builder>) i -> i.namespace("example"),
+            (Consumer<ProxyInfoFW.Builder>) i -> i.secure(s -> s.protocol("TLSv1.3")),
+            (Consumer<ProxyInfoFW.Builder>) i -> i.secure(s -> s.cipher("ECDHE-RSA-AES128-GCM-SHA256"))
+        };
+    }
+
+    private static DirectBuffer unixPath(
+        String path)
+    {
+        final byte[] bytes = new byte[108];
+        final byte[] chars = path.getBytes(US_ASCII);
+        System.arraycopy(chars, 0, bytes, 0, chars.length);
+        return new UnsafeBuffer(bytes);
+    }
+}
@@ -0,0 +1,153 @@
+/**
+ * Copyright 2016-2021 The Reaktivity Project
+ *
+ * The Reaktivity Project licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package org.reaktivity.specification.nukleus.proxy.internal;
+
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.agrona.concurrent.UnsafeBuffer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.reaktivity.specification.nukleus.proxy.internal.types.stream.ProxyBeginExFW;
+
+/**
+ * Measures route selection for synthetic server bindings whose routes are keyed on destination port,
+ * ALPN, authority and TLS version, as in {@code server.tcp4.alpn.json} and {@code server.tcp4.ssl.version.json}.
+ * <p>
+ * {@link #resolve()} reports routes resolved per second, and {@link #resolveLatency()} reports the
+ * {@code p0.99} selection latency in nanoseconds.
+ */
+@State(Scope.Benchmark)
+@Fork(3)
+@Warmup(iterations = 5, time = 1, timeUnit = SECONDS)
+@Measurement(iterations = 5, time = 1, timeUnit = SECONDS)
+public class ProxyRouterBenchmark
+{
+    private static final String[] ALPNS = { "h2", "http/1.1" };
+    private static final String[] VERSIONS = { "TLSv1.2", "TLSv1.3" };
+
+    private static final int PORT_BASE = 1024;
+    private static final int PORT_COUNT = 60000;
+    private static final int CORPUS_SIZE = 1024;
+
+    private final ProxyBeginExFW[] corpus = new ProxyBeginExFW[CORPUS_SIZE];
+
+    private ProxyRouter router;
+    private int next;
+
+    @Param({ "10", "100", "1000", "10000", "100000" })
+    public int routes;
+
+    @Param({ "linear", "indexed" })
+    public String strategy;
+
+    @Setup
+    public void init() throws Exception
+    {
+        final List<ProxyCondition> conditions = new ArrayList<>(routes);
+        for (int route = 0; route < routes; route++)
+        {
+            conditions.add(ProxyCondition.builder()
+                                         .transport("stream")
+                                         .family("inet4")
+                                         .destinationPort(Integer.toString(port(route)))
+                                         .alpn(alpn(route))
+                                         .authority(authority(route))
+                                         .secureVersion(version(route))
+                                         .build());
+        }
+
+        router = "indexed".equals(strategy) ? ProxyRouter.indexed(conditions) : ProxyRouter.linear(conditions);
+
+        final Random random = new Random(routes);
+        for (int index = 0; index < corpus.length; index++)
+        {
+            final int route = random.nextInt(routes);
+            final byte[] beginEx = ProxyFunctions.beginEx()
+                                                 .typeId(0x01)
+                                                 .addressInet4()
+                                                     .protocol("stream")
+                                                     .source("192.168.0.1")
+                                                     .destination("192.168.0.254")
+                                                     .sourcePort(32768)
+                                                     .destinationPort(port(route))
+                                                     .build()
+                                                 .info()
+                                                     .alpn(alpn(route))
+                                                     .authority(authority(route))
+                                                     .secure()
+                                                         .protocol(version(route))
+                                                         .cipher("ECDHE-RSA-AES128-GCM-SHA256")
+                                                         .build()
+                                                     .build()
+                                                 .build();
+            corpus[index] = new ProxyBeginExFW().wrap(new UnsafeBuffer(beginEx), 0, beginEx.length);
+        }
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(SECONDS)
+    public int resolve()
+    {
+        return router.resolve(corpus[next++ & (CORPUS_SIZE - 1)]);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SampleTime)
+    @OutputTimeUnit(NANOSECONDS)
+    public int resolveLatency()
+    {
+        return router.resolve(corpus[next++ & (CORPUS_SIZE - 1)]);
+    }
+
+    private static int port(
+        int route)
+    {
+        return PORT_BASE + (route >> 1) % PORT_COUNT;
+    }
+
+    private static String alpn(
+        int route)
+    {
+        return ALPNS[route & 0x01];
+    }
+
+    private static String version(
+        int route)
+    {
+        return VERSIONS[(route >> 1) & 0x01];
+    }
+
+    private static String authority(
+        int route)
+    {
+        return String.format("host%d.example.com", route);
+    }
+}
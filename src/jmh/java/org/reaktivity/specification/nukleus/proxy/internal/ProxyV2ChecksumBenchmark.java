@@ -0,0 +1,117 @@
+/**
+ * Copyright 2016-2021 The Reaktivity Project
+ *
+ * The Reaktivity Project licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package org.reaktivity.specification.nukleus.proxy.internal;
+
+import static java.nio.ByteOrder.BIG_ENDIAN;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.agrona.BitUtil.fromHex;
+
+import java.nio.ByteBuffer;
+
+import org.agrona.MutableDirectBuffer;
+import org.agrona.concurrent.UnsafeBuffer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.reaktivity.specification.nukleus.proxy.internal.types.stream.ProxyBeginExFW;
+
+/**
+ * Measures {@code PP2_TYPE_CRC32C} verification of tcp4 headers padded with a {@code PP2_TYPE_NOOP} TLV
+ * up to the maximum header length of 65535 bytes, both on its own and as part of decoding.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@Fork(3)
+@Warmup(iterations = 5, time = 1, timeUnit = SECONDS)
+@Measurement(iterations = 5, time = 1, timeUnit = SECONDS)
+@OutputTimeUnit(NANOSECONDS)
+public class ProxyV2ChecksumBenchmark
+{
+    private static final String PREFIX = "0d0a0d0a000d0a515549540a" + "2111";
+    private static final String TCP4_ADDRESS = "c0a80001c0a800fe800001bb";
+
+    private static final int HEADER_SIZE = 16;
+    private static final int ADDRESS_SIZE = 12;
+    private static final int TLV_HEADER_SIZE = 3;
+    private static final int CRC32C_SIZE = 4;
+
+    private final ProxyV2Checksum checksum = new ProxyV2Checksum();
+    private final ProxyV2Decoder decoder = new ProxyV2Decoder();
+    private final MutableDirectBuffer writeBuffer = new UnsafeBuffer(new byte[8192]);
+    private final ProxyBeginExFW.Builder beginExRW = new ProxyBeginExFW.Builder();
+
+    private MutableDirectBuffer header;
+    private int checksumOffset;
+
+    @Param({ "19", "1024", "65535" })
+    public int length;
+
+    @Param({ "heap", "direct" })
+    public String buffer;
+
+    @Setup
+    public void init()
+    {
+        final int headerSize = HEADER_SIZE + length;
+
+        header = "direct".equals(buffer)
+                ? new UnsafeBuffer(ByteBuffer.allocateDirect(headerSize))
+                : new UnsafeBuffer(new byte[headerSize]);
+
+        int progress = 0;
+        header.putBytes(progress, fromHex(PREFIX));
+        progress += HEADER_SIZE - Short.BYTES;
+        header.putShort(progress, (short) length, BIG_ENDIAN);
+        progress += Short.BYTES;
+        header.putBytes(progress, fromHex(TCP4_ADDRESS));
+        progress += ADDRESS_SIZE;
+
+        final int noop = headerSize - progress - TLV_HEADER_SIZE - CRC32C_SIZE;
+        if (noop >= TLV_HEADER_SIZE)
+        {
+            header.putByte(progress, (byte) 0x04);
+            header.putShort(progress + 1, (short) (noop - TLV_HEADER_SIZE), BIG_ENDIAN);
+            progress += noop;
+        }
+
+        header.putByte(progress, (byte) 0x03);
+        header.putShort(progress + 1, (short) CRC32C_SIZE, BIG_ENDIAN);
+        checksumOffset = progress + TLV_HEADER_SIZE;
+        header.putInt(checksumOffset, checksum.checksum(header, 0, headerSize, checksumOffset), BIG_ENDIAN);
+    }
+
+    @Benchmark
+    public boolean verify()
+    {
+        return checksum.verify(header, 0, header.capacity(), checksumOffset);
+    }
+
+    @Benchmark
+    public int decode()
+    {
+        beginExRW.wrap(writeBuffer, 0, writeBuffer.capacity()).typeId(0x01);
+        return decoder.decode(header, 0, header.capacity(), beginExRW);
+    }
+}
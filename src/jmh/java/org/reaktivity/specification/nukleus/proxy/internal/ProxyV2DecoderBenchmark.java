@@ -0,0 +1,120 @@
+/**
+ * Copyright 2016-2021 The Reaktivity Project
+ *
+ * The Reaktivity Project licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package org.reaktivity.specification.nukleus.proxy.internal;
+
+import static java.nio.charset.StandardCharsets.US_ASCII;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.agrona.BitUtil.fromHex;
+
+import java.util.Arrays;
+
+import org.agrona.BitUtil;
+import org.agrona.DirectBuffer;
+import org.agrona.MutableDirectBuffer;
+import org.agrona.concurrent.UnsafeBuffer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.reaktivity.specification.nukleus.proxy.internal.types.stream.ProxyBeginExFW;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@Fork(3)
+@Warmup(iterations = 5, time = 1, timeUnit = SECONDS)
+@Measurement(iterations = 5, time = 1, timeUnit = SECONDS)
+@OutputTimeUnit(SECONDS)
+public class ProxyV2DecoderBenchmark
+{
+    private static final String SIGNATURE = "0d0a0d0a000d0a515549540a";
+    private static final String TCP4_ADDRESS = "c0a80001c0a800fe800001bb";
+
+    private final ProxyV2Decoder decoder = new ProxyV2Decoder();
+    private final MutableDirectBuffer writeBuffer = new UnsafeBuffer(new byte[8192]);
+    private final ProxyBeginExFW.Builder beginExRW = new ProxyBeginExFW.Builder();
+
+    private DirectBuffer header;
+
+    @Param({ "tcp4", "tcp6", "sock.stream", "tcp4.alpn", "tcp4.ssl.client.cert" })
+    public String scenario;
+
+    @Setup
+    public void init()
+    {
+        switch (scenario)
+        {
+        case "tcp4":
+            header = header("2111000c" + TCP4_ADDRESS);
+            break;
+        case "tcp6":
+            header = header("21210024" +
+                "fd123456789a00010000000000000001" +
+                "fd123456789a000100000000000000fe" +
+                "800001bb");
+            break;
+        case "sock.stream":
+            header = header("213100d8" +
+                padded("source-123456789abcd", 108) +
+                padded("destination-12345678", 108));
+            break;
+        case "tcp4.alpn":
+            header = header("21110013" + TCP4_ADDRESS + "010004" + hex("echo"));
+            break;
+        default:
+            header = header("2111005d" + TCP4_ADDRESS +
+                "20004e" + "07" + "00000000" +
+                "210007" + hex("TLSv1.3") +
+                "23001b" + hex("ECDHE-RSA-AES128-GCM-SHA256") +
+                "240006" + hex("SHA256") +
+                "22000b" + hex("name@domain") +
+                "250007" + hex("RSA2048"));
+            break;
+        }
+    }
+
+    @Benchmark
+    public int decode()
+    {
+        beginExRW.wrap(writeBuffer, 0, writeBuffer.capacity()).typeId(0x01);
+        return decoder.decode(header, 0, header.capacity(), beginExRW);
+    }
+
+    private static DirectBuffer header(
+        String hex)
+    {
+        return new UnsafeBuffer(fromHex(SIGNATURE + hex));
+    }
+
+    private static String hex(
+        String text)
+    {
+        return BitUtil.toHex(text.getBytes(US_ASCII));
+    }
+
+    private static String padded(
+        String text,
+        int length)
+    {
+        return BitUtil.toHex(Arrays.copyOf(text.getBytes(US_ASCII), length));
+    }
+}
@@ -0,0 +1,128 @@
+/**
+ * Copyright 2016-2021 The Reaktivity Project
+ *
+ * The Reaktivity Project licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package org.reaktivity.specification.nukleus.proxy.internal;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+
+import org.agrona.MutableDirectBuffer;
+import org.agrona.concurrent.UnsafeBuffer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.reaktivity.specification.nukleus.proxy.internal.types.stream.ProxyBeginExFW;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@Fork(3)
+@Warmup(iterations = 5, time = 1, timeUnit = SECONDS)
+@Measurement(iterations = 5, time = 1, timeUnit = SECONDS)
+@OutputTimeUnit(SECONDS)
+public class ProxyV2EncoderBenchmark
+{
+    private final ProxyV2Encoder encoder = new ProxyV2Encoder();
+    private final MutableDirectBuffer writeBuffer = new UnsafeBuffer(new byte[8192]);
+    private final ProxyV2Template template = new ProxyV2Template(encoder, new UnsafeBuffer(new byte[8192]));
+
+    private ProxyBeginExFW beginEx;
+
+    @Param({ "tcp4", "tcp6", "sock.stream", "tcp4.alpn", "tcp4.ssl.client.cert" })
+    public String scenario;
+
+    @Param({ "false", "true" })
+    public boolean crc32c;
+
+    @Setup
+    public void init() throws Exception
+    {
+        ProxyFunctions.ProxyBeginExBuilder builder = ProxyFunctions.beginEx().typeId(0x01);
+
+        switch (scenario)
+        {
+        case "tcp6":
+            builder.addressInet6()
+                       .protocol("stream")
+                       .source("fd12:3456:789a:1::1")
+                       .destination("fd12:3456:789a:1::fe")
+                       .sourcePort(32768)
+                       .destinationPort(443)
+                       .build();
+            break;
+        case "sock.stream":
+            builder.addressUnix()
+                       .protocol("stream")
+                       .source("source-123456789abcd")
+                       .destination("destination-12345678")
+                       .build();
+            break;
+        default:
+            builder.addressInet4()
+                       .protocol("stream")
+                       .source("192.168.0.1")
+                       .destination("192.168.0.254")
+                       .sourcePort(32768)
+                       .destinationPort(443)
+                       .build();
+            break;
+        }
+
+        switch (scenario)
+        {
+        case "tcp4.alpn":
+            builder.info()
+                       .alpn("echo")
+                       .build();
+            break;
+        case "tcp4.ssl.client.cert":
+            builder.info()
+                       .secure()
+                           .protocol("TLSv1.3")
+                           .cipher("ECDHE-RSA-AES128-GCM-SHA256")
+                           .signature("SHA256")
+                           .name("name@domain")
+                           .key("RSA2048")
+                           .build()
+                       .build();
+            break;
+        default:
+            break;
+        }
+
+        byte[] bytes = builder.build();
+        beginEx = new ProxyBeginExFW().wrap(new UnsafeBuffer(bytes), 0, bytes.length);
+        encoder.crc32c(crc32c);
+        template.prepare(beginEx);
+    }
+
+    @Benchmark
+    public int encode()
+    {
+        return encoder.encode(beginEx, writeBuffer, 0, writeBuffer.capacity());
+    }
+
+    @Benchmark
+    public int template()
+    {
+        return template.encode(beginEx, writeBuffer, 0, writeBuffer.capacity());
+    }
+}
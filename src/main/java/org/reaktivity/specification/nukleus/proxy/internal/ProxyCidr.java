@@ -0,0 +1,136 @@
+/**
+ * Copyright 2016-2021 The Reaktivity Project
+ *
+ * The Reaktivity Project licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package org.reaktivity.specification.nukleus.proxy.internal;
+
+import static org.reaktivity.specification.nukleus.proxy.internal.types.ProxyAddressFamily.INET4;
+import static org.reaktivity.specification.nukleus.proxy.internal.types.ProxyAddressFamily.INET6;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.regex.Pattern;
+
+import org.agrona.DirectBuffer;
+import org.reaktivity.specification.nukleus.proxy.internal.types.ProxyAddressFamily;
+
+public final class ProxyCidr
+{
+    private static final String INET4_OCTET = "(25[0-5]|2[0-4]\\d|1\\d\\d|[1-9]?\\d)";
+    private static final Pattern INET4_LITERAL = Pattern.compile(INET4_OCTET + "(\\." + INET4_OCTET + "){3}");
+    private static final Pattern INET6_LITERAL = Pattern.compile("[0-9a-fA-F:.]*:[0-9a-fA-F:.]*");
+
+    private final byte[] address;
+    private final int length;
+
+    private ProxyCidr(
+        byte[] address,
+        int length)
+    {
+        this.address = address;
+        this.length = length;
+    }
+
+    public ProxyAddressFamily family()
+    {
+        return address.length == 4 ? INET4 : INET6;
+    }
+
+    public int length()
+    {
+        return length;
+    }
+
+    public boolean matches(
+        DirectBuffer buffer,
+        int offset,
+        int size)
+    {
+        boolean matches = size == address.length;
+
+        final int octets = length >> 3;
+        for (int index = 0; matches && index < octets; index++)
+        {
+            matches = buffer.getByte(offset + index) == address[index];
+        }
+
+        final int bits = length & 0x07;
+        if (matches && bits != 0)
+        {
+            final int mask = (0xff00 >> bits) & 0xff;
+            matches = ((buffer.getByte(offset + octets) ^ address[octets]) & mask) == 0;
+        }
+
+        return matches;
+    }
+
+    int bit(
+        int index)
+    {
+        return (address[index >> 3] >> (7 - (index & 0x07))) & 0x01;
+    }
+
+    public static ProxyCidr of(
+        String cidr)
+    {
+        final int slash = cidr.indexOf('/');
+        final String host = slash != -1 ? cidr.substring(0, slash) : cidr;
+        final byte[] address = address(host, cidr);
+        final int bits = address.length << 3;
+        final int length = slash != -1 ? Integer.parseInt(cidr.substring(slash + 1)) : bits;
+
+        if (length < 0 || length > bits)
+        {
+            throw new IllegalArgumentException(String.format("Invalid prefix length: %s", cidr));
+        }
+
+        return new ProxyCidr(address, length);
+    }
+
+    private static byte[] address(
+        String host,
+        String cidr)
+    {
+        byte[] address = null;
+
+        if (INET4_LITERAL.matcher(host).matches())
+        {
+            final String[] octets = host.split("\\.");
+            address = new byte[octets.length];
+            for (int index = 0; index < octets.length; index++)
+            {
+                address[index] = (byte) Integer.parseInt(octets[index]);
+            }
+        }
+        else if (INET6_LITERAL.matcher(host).matches())
+        {
+            try
+            {
+                // a literal containing ':' is parsed as IPv6 without any name lookup
+                address = InetAddress.getByName(host).getAddress();
+            }
+            catch (UnknownHostException ex)
+            {
+                // rejected below
+            }
+        }
+
+        if (address == null)
+        {
+            throw new IllegalArgumentException(String.format("Invalid address literal: %s", cidr));
+        }
+
+        return address;
+    }
+}
@@ -0,0 +1,343 @@
+/**
+ * Copyright 2016-2021 The Reaktivity Project
+ *
+ * The Reaktivity Project licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package org.reaktivity.specification.nukleus.proxy.internal;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.reaktivity.specification.nukleus.proxy.internal.types.ProxyInfoType.ALPN;
+import static org.reaktivity.specification.nukleus.proxy.internal.types.ProxyInfoType.AUTHORITY;
+import static org.reaktivity.specification.nukleus.proxy.internal.types.ProxyInfoType.SECURE;
+import static org.reaktivity.specification.nukleus.proxy.internal.types.ProxySecureInfoType.NAME;
+import static org.reaktivity.specification.nukleus.proxy.internal.types.ProxySecureInfoType.PROTOCOL;
+
+import java.util.function.Predicate;
+
+import org.agrona.DirectBuffer;
+import org.agrona.concurrent.UnsafeBuffer;
+import org.reaktivity.specification.nukleus.proxy.internal.types.Array32FW;
+import org.reaktivity.specification.nukleus.proxy.internal.types.OctetsFW;
+import org.reaktivity.specification.nukleus.proxy.internal.types.ProxyAddressFW;
+import org.reaktivity.specification.nukleus.proxy.internal.types.ProxyAddressFamily;
+import org.reaktivity.specification.nukleus.proxy.internal.types.ProxyAddressInet4FW;
+import org.reaktivity.specification.nukleus.proxy.internal.types.ProxyAddressInet6FW;
+import org.reaktivity.specification.nukleus.proxy.internal.types.ProxyAddressInetFW;
+import org.reaktivity.specification.nukleus.proxy.internal.types.ProxyAddressProtocol;
+import org.reaktivity.specification.nukleus.proxy.internal.types.ProxyInfoFW;
+import org.reaktivity.specification.nukleus.proxy.internal.types.stream.ProxyBeginExFW;
+
+public final class ProxyCondition
+{
+    static final int PORT_MIN = 0;
+    static final int PORT_MAX = 0xffff;
+
+    final ProxyAddressProtocol transport;
+    final ProxyAddressFamily family;
+    final ProxyCidr source;
+    final ProxyCidr destination;
+    final int sourcePortMin;
+    final int sourcePortMax;
+    final int destinationPortMin;
+    final int destinationPortMax;
+    final ProxyName authority;
+    final ProxyName secureName;
+
+    private final DirectBuffer alpn;
+    private final DirectBuffer secureVersion;
+    private final boolean ports;
+
+    private final Predicate<ProxyInfoFW> matchAlpn = this::matchAlpn;
+    private final Predicate<ProxyInfoFW> matchAuthority = this::matchAuthority;
+    private final Predicate<ProxyInfoFW> matchSecureVersion = this::matchSecureVersion;
+    private final Predicate<ProxyInfoFW> matchSecureName = this::matchSecureName;
+
+    private ProxyCondition(
+        Builder builder)
+    {
+        this.transport = builder.transport;
+        this.family = builder.family;
+        this.source = builder.source;
+        this.destination = builder.destination;
+        this.sourcePortMin = builder.sourcePortMin;
+        this.sourcePortMax = builder.sourcePortMax;
+        this.destinationPortMin = builder.destinationPortMin;
+        this.destinationPortMax = builder.destinationPortMax;
+        this.alpn = builder.alpn;
+        this.authority = builder.authority;
+        this.secureVersion = builder.secureVersion;
+        this.secureName = builder.secureName;
+        this.ports = sourcePortMin != PORT_MIN || sourcePortMax != PORT_MAX ||
+                     destinationPortMin != PORT_MIN || destinationPortMax != PORT_MAX;
+    }
+
+    public boolean matches(
+        ProxyBeginExFW beginEx)
+    {
+        final ProxyAddressFW address = beginEx.address();
+        return (family == null || family == address.kind()) &&
+               matchAddress(address) &&
+               matchInfos(beginEx.infos());
+    }
+
+    boolean hasExactDestinationPort()
+    {
+        return destinationPortMin == destinationPortMax;
+    }
+
+    private boolean matchAddress(
+        ProxyAddressFW address)
+    {
+        boolean matches;
+
+        switch (address.kind())
+        {
+        case INET:
+            final ProxyAddressInetFW inet = address.inet();
+            matches = matchTransport(inet.protocol().get()) &&
+                      matchPorts(inet.sourcePort(), inet.destinationPort());
+            break;
+        case INET4:
+            final ProxyAddressInet4FW inet4 = address.inet4();
+            matches = matchTransport(inet4.protocol().get()) &&
+                      matchCidr(source, inet4.source()) &&
+                      matchCidr(destination, inet4.destination()) &&
+                      matchPorts(inet4.sourcePort(), inet4.destinationPort());
+            break;
+        case INET6:
+            final ProxyAddressInet6FW inet6 = address.inet6();
+            matches = matchTransport(inet6.protocol().get()) &&
+                      matchCidr(source, inet6.source()) &&
+                      matchCidr(destination, inet6.destination()) &&
+                      matchPorts(inet6.sourcePort(), inet6.destinationPort());
+            break;
+        case UNIX:
+            matches = !ports && matchTransport(address.unix().protocol().get());
+            break;
+        default:
+            matches = !ports && transport == null;
+            break;
+        }
+
+        return matches;
+    }
+
+    private boolean matchTransport(
+        ProxyAddressProtocol protocol)
+    {
+        return transport == null || transport == protocol;
+    }
+
+    private boolean matchPorts(
+        int sourcePort,
+        int destinationPort)
+    {
+        return sourcePortMin <= sourcePort && sourcePort <= sourcePortMax &&
+               destinationPortMin <= destinationPort && destinationPort <= destinationPortMax;
+    }
+
+    private boolean matchInfos(
+        Array32FW<ProxyInfoFW> infos)
+    {
+        return (alpn == null || infos.anyMatch(matchAlpn)) &&
+               (authority == null || infos.anyMatch(matchAuthority)) &&
+               (secureVersion == null || infos.anyMatch(matchSecureVersion)) &&
+               (secureName == null || infos.anyMatch(matchSecureName));
+    }
+
+    private boolean matchAlpn(
+        ProxyInfoFW info)
+    {
+        return info.kind() == ALPN && alpn.equals(info.alpn().value());
+    }
+
+    private boolean matchAuthority(
+        ProxyInfoFW info)
+    {
+        return info.kind() == AUTHORITY && authority.matches(info.authority().value());
+    }
+
+    private boolean matchSecureVersion(
+        ProxyInfoFW info)
+    {
+        return info.kind() == SECURE &&
+               info.secure().kind() == PROTOCOL &&
+               secureVersion.equals(info.secure().protocol().value());
+    }
+
+    private boolean matchSecureName(
+        ProxyInfoFW info)
+    {
+        return info.kind() == SECURE &&
+               info.secure().kind() == NAME &&
+               secureName.matches(info.secure().name().value());
+    }
+
+    private static boolean matchCidr(
+        ProxyCidr cidr,
+        OctetsFW address)
+    {
+        return cidr == null || cidr.matches(address.buffer(), address.offset(), address.sizeof());
+    }
+
+    public static Builder builder()
+    {
+        return new Builder();
+    }
+
+    public static final class Builder
+    {
+        private ProxyAddressProtocol transport;
+        private ProxyAddressFamily family;
+        private ProxyCidr source;
+        private ProxyCidr destination;
+        private int sourcePortMin = PORT_MIN;
+        private int sourcePortMax = PORT_MAX;
+        private int destinationPortMin = PORT_MIN;
+        private int destinationPortMax = PORT_MAX;
+        private DirectBuffer alpn;
+        private ProxyName authority;
+        private DirectBuffer secureVersion;
+        private ProxyName secureName;
+
+        private Builder()
+        {
+        }
+
+        public Builder transport(
+            String transport)
+        {
+            this.transport = ProxyAddressProtocol.valueOf(transport.toUpperCase());
+            return this;
+        }
+
+        public Builder family(
+            String family)
+        {
+            this.family = ProxyAddressFamily.valueOf(family.toUpperCase());
+            return this;
+        }
+
+        public Builder source(
+            String cidr)
+        {
+            this.source = ProxyCidr.of(cidr);
+            return this;
+        }
+
+        public Builder destination(
+            String cidr)
+        {
+            this.destination = ProxyCidr.of(cidr);
+            return this;
+        }
+
+        public Builder sourcePort(
+            String range)
+        {
+            this.sourcePortMin = portMin(range);
+            this.sourcePortMax = portMax(range);
+            return this;
+        }
+
+        public Builder destinationPort(
+            String range)
+        {
+            this.destinationPortMin = portMin(range);
+            this.destinationPortMax = portMax(range);
+            return this;
+        }
+
+        public Builder alpn(
+            String alpn)
+        {
+            this.alpn = new UnsafeBuffer(alpn.getBytes(UTF_8));
+            return this;
+        }
+
+        public Builder authority(
+            String authority)
+        {
+            this.authority = ProxyName.of(authority);
+            return this;
+        }
+
+        public Builder secureVersion(
+            String version)
+        {
+            this.secureVersion = new UnsafeBuffer(version.getBytes(UTF_8));
+            return this;
+        }
+
+        public Builder secureName(
+            String name)
+        {
+            this.secureName = ProxyName.of(name);
+            return this;
+        }
+
+        public ProxyCondition build()
+        {
+            family = family(family, source);
+            family = family(family, destination);
+            return new ProxyCondition(this);
+        }
+
+        private static ProxyAddressFamily family(
+            ProxyAddressFamily family,
+            ProxyCidr cidr)
+        {
+            if (cidr != null && family != null && family != cidr.family())
+            {
+                throw new IllegalArgumentException(String.format("Address family mismatch: %s", family));
+            }
+
+            return cidr != null ? cidr.family() : family;
+        }
+
+        private static int portMin(
+            String range)
+        {
+            final int dash = range.indexOf('-');
+            return port(range, dash != -1 ? range.substring(0, dash) : range);
+        }
+
+        private static int portMax(
+            String range)
+        {
+            final int dash = range.indexOf('-');
+            final int portMax = port(range, range.substring(dash + 1));
+
+            if (portMax < portMin(range))
+            {
+                throw new IllegalArgumentException(String.format("Invalid port range: %s", range));
+            }
+
+            return portMax;
+        }
+
+        private static int port(
+            String range,
+            String value)
+        {
+            final int port = Integer.parseInt(value.trim());
+
+            if (port < PORT_MIN || port > PORT_MAX)
+            {
+                throw new IllegalArgumentException(String.format("Invalid port range: %s", range));
+            }
+
+            return port;
+        }
+    }
+}
@@ -15,32 +15,30 @@
  */
 package org.reaktivity.specification.nukleus.proxy.internal;
 
+import static org.reaktivity.specification.nukleus.proxy.internal.ProxyFunctions.ProxyBeginExMismatch.ADDRESS;
+import static org.reaktivity.specification.nukleus.proxy.internal.ProxyFunctions.ProxyBeginExMismatch.ADDRESS_FAMILY;
+import static org.reaktivity.specification.nukleus.proxy.internal.ProxyFunctions.ProxyBeginExMismatch.INFO;
+import static org.reaktivity.specification.nukleus.proxy.internal.ProxyFunctions.ProxyBeginExMismatch.SECURE_INFO;
+import static org.reaktivity.specification.nukleus.proxy.internal.ProxyFunctions.ProxyBeginExMismatch.TYPE_ID;
+import static org.reaktivity.specification.nukleus.proxy.internal.ProxyFunctions.ProxyBeginExMismatch.UNDERFLOW;
 import static org.reaktivity.specification.nukleus.proxy.internal.types.ProxyAddressFamily.INET;
 import static org.reaktivity.specification.nukleus.proxy.internal.types.ProxyAddressFamily.INET4;
 import static org.reaktivity.specification.nukleus.proxy.internal.types.ProxyAddressFamily.INET6;
 import static org.reaktivity.specification.nukleus.proxy.internal.types.ProxyAddressFamily.NONE;
 import static org.reaktivity.specification.nukleus.proxy.internal.types.ProxyAddressFamily.UNIX;
-import static org.reaktivity.specification.nukleus.proxy.internal.types.ProxyInfoType.ALPN;
-import static org.reaktivity.specification.nukleus.proxy.internal.types.ProxyInfoType.AUTHORITY;
-import static org.reaktivity.specification.nukleus.proxy.internal.types.ProxyInfoType.IDENTITY;
-import static org.reaktivity.specification.nukleus.proxy.internal.types.ProxyInfoType.NAMESPACE;
 import static org.reaktivity.specification.nukleus.proxy.internal.types.ProxyInfoType.SECURE;
-import static org.reaktivity.specification.nukleus.proxy.internal.types.ProxySecureInfoType.CIPHER;
-import static org.reaktivity.specification.nukleus.proxy.internal.types.ProxySecureInfoType.KEY;
-import static org.reaktivity.specification.nukleus.proxy.internal.types.ProxySecureInfoType.NAME;
-import static org.reaktivity.specification.nukleus.proxy.internal.types.ProxySecureInfoType.PROTOCOL;
-import static org.reaktivity.specification.nukleus.proxy.internal.types.ProxySecureInfoType.SIGNATURE;
+import static org.reaktivity.specification.nukleus.proxy.internal.types.stream.ProxyBeginExFW.FIELD_OFFSET_ADDRESS;
+import static org.reaktivity.specification.nukleus.proxy.internal.types.stream.ProxyBeginExFW.FIELD_OFFSET_TYPE_ID;
 
 import java.net.InetAddress;
 import java.net.UnknownHostException;
 import java.nio.ByteBuffer;
-import java.util.EnumMap;
-import java.util.Map;
+import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.function.Predicate;
 
 import org.agrona.DirectBuffer;
 import org.agrona.MutableDirectBuffer;
-import org.agrona.collections.MutableInteger;
 import org.agrona.concurrent.UnsafeBuffer;
 import org.kaazing.k3po.lang.el.BytesMatcher;
 import org.kaazing.k3po.lang.el.Function;
@@ -48,6 +46,7 @@ import org.kaazing.k3po.lang.el.spi.FunctionMapperSpi;
 import org.reaktivity.specification.nukleus.proxy.internal.types.Array32FW;
 import org.reaktivity.specification.nukleus.proxy.internal.types.OctetsFW;
 import org.reaktivity.specification.nukleus.proxy.internal.types.ProxyAddressFW;
+import org.reaktivity.specification.nukleus.proxy.internal.types.ProxyAddressFamily;
 import org.reaktivity.specification.nukleus.proxy.internal.types.ProxyAddressInet4FW;
 import org.reaktivity.specification.nukleus.proxy.internal.types.ProxyAddressInet6FW;
 import org.reaktivity.specification.nukleus.proxy.internal.types.ProxyAddressInetFW;
@@ -56,10 +55,8 @@ import org.reaktivity.specification.nukleus.proxy.internal.types.ProxyAddressPro
 import org.reaktivity.specification.nukleus.proxy.internal.types.ProxyAddressUnixFW;
 import org.reaktivity.specification.nukleus.proxy.internal.types.ProxyInfoFW;
 import org.reaktivity.specification.nukleus.proxy.internal.types.ProxyInfoType;
-import org.reaktivity.specification.nukleus.proxy.internal.types.ProxySecureInfoFW;
 import org.reaktivity.specification.nukleus.proxy.internal.types.ProxySecureInfoType;
 import org.reaktivity.specification.nukleus.proxy.internal.types.String16FW;
-import org.reaktivity.specification.nukleus.proxy.internal.types.String8FW;
 import org.reaktivity.specification.nukleus.proxy.internal.types.stream.ProxyBeginExFW;
 
 public final class ProxyFunctions
@@ -76,16 +73,41 @@ public final class ProxyFunctions
         return new ProxyBeginExMatcherBuilder();
     }
 
+    @Function
+    public static byte[] randomBytes(
+        int length)
+    {
+        final byte[] bytes = new byte[length];
+        ThreadLocalRandom.current().nextBytes(bytes);
+        return bytes;
+    }
+
     public static final class ProxyBeginExBuilder
     {
+        private final MutableDirectBuffer writeBuffer;
+        private final MutableDirectBuffer scratchBuffer;
         private final ProxyBeginExFW.Builder beginExRW;
 
+        private ProxyAddressInetBuilder addressInet;
+        private ProxyAddressInet4Builder addressInet4;
+        private ProxyAddressInet6Builder addressInet6;
+        private ProxyAddressUnixBuilder addressUnix;
+        private ProxyAddressNoneBuilder addressNone;
+        private ProxyInfoBuilder info;
+
         private ProxyBeginExBuilder()
         {
-            MutableDirectBuffer writeBuffer = new UnsafeBuffer(new byte[1024 * 8]);
+            this.writeBuffer = new UnsafeBuffer(new byte[1024 * 8]);
+            this.scratchBuffer = new UnsafeBuffer(new byte[1024]);
             this.beginExRW = new ProxyBeginExFW.Builder().wrap(writeBuffer, 0, writeBuffer.capacity());
         }
 
+        public ProxyBeginExBuilder reset()
+        {
+            beginExRW.wrap(writeBuffer, 0, writeBuffer.capacity());
+            return this;
+        }
+
         public ProxyBeginExBuilder typeId(
             int typeId)
         {
@@ -95,32 +117,56 @@ public final class ProxyFunctions
 
         public ProxyAddressInetBuilder addressInet()
         {
-            return new ProxyAddressInetBuilder();
+            if (addressInet == null)
+            {
+                addressInet = new ProxyAddressInetBuilder();
+            }
+            return addressInet.wrap();
         }
 
         public ProxyAddressInet4Builder addressInet4()
         {
-            return new ProxyAddressInet4Builder();
+            if (addressInet4 == null)
+            {
+                addressInet4 = new ProxyAddressInet4Builder();
+            }
+            return addressInet4.wrap();
         }
 
         public ProxyAddressInet6Builder addressInet6()
         {
-            return new ProxyAddressInet6Builder();
+            if (addressInet6 == null)
+            {
+                addressInet6 = new ProxyAddressInet6Builder();
+            }
+            return addressInet6.wrap();
         }
 
         public ProxyAddressUnixBuilder addressUnix()
         {
-            return new ProxyAddressUnixBuilder();
+            if (addressUnix == null)
+            {
+                addressUnix = new ProxyAddressUnixBuilder();
+            }
+            return addressUnix.wrap();
         }
 
         public ProxyAddressNoneBuilder addressNone()
         {
-            return new ProxyAddressNoneBuilder();
+            if (addressNone == null)
+            {
+                addressNone = new ProxyAddressNoneBuilder();
+            }
+            return addressNone.wrap();
         }
 
         public ProxyInfoBuilder info()
         {
-            return new ProxyInfoBuilder();
+            if (info == null)
+            {
+                info = new ProxyInfoBuilder();
+            }
+            return info.wrap();
         }
 
         public byte[] build()
@@ -131,6 +177,16 @@ public final class ProxyFunctions
             return array;
         }
 
+        public int build(
+            MutableDirectBuffer buffer,
+            int offset)
+        {
+            final ProxyBeginExFW beginEx = beginExRW.build();
+            final int sizeof = beginEx.sizeof();
+            buffer.putBytes(offset, beginEx.buffer(), beginEx.offset(), sizeof);
+            return sizeof;
+        }
+
         public final class ProxyAddressInetBuilder
         {
             private final ProxyAddressFW.Builder addressRW = new ProxyAddressFW.Builder();
@@ -139,9 +195,13 @@ public final class ProxyFunctions
 
             private ProxyAddressInetBuilder()
             {
-                final MutableDirectBuffer buffer = new UnsafeBuffer(new byte[128]);
-                addressRW.wrap(buffer, 0, buffer.capacity());
-                addressInetRW.wrap(buffer, 1, buffer.capacity());
+            }
+
+            private ProxyAddressInetBuilder wrap()
+            {
+                addressRW.wrap(scratchBuffer, 0, scratchBuffer.capacity());
+                addressInetRW.wrap(scratchBuffer, 1, scratchBuffer.capacity());
+                return this;
             }
 
             public ProxyAddressInetBuilder protocol(
@@ -194,9 +254,13 @@ public final class ProxyFunctions
 
             private ProxyAddressInet4Builder()
             {
-                final MutableDirectBuffer buffer = new UnsafeBuffer(new byte[14]);
-                addressRW.wrap(buffer, 0, buffer.capacity());
-                addressInet4RW.wrap(buffer, 1, buffer.capacity());
+            }
+
+            private ProxyAddressInet4Builder wrap()
+            {
+                addressRW.wrap(scratchBuffer, 0, scratchBuffer.capacity());
+                addressInet4RW.wrap(scratchBuffer, 1, scratchBuffer.capacity());
+                return this;
             }
 
             public ProxyAddressInet4Builder protocol(
@@ -253,9 +317,13 @@ public final class ProxyFunctions
 
             private ProxyAddressInet6Builder()
             {
-                final MutableDirectBuffer buffer = new UnsafeBuffer(new byte[38]);
-                addressRW.wrap(buffer, 0, buffer.capacity());
-                addressInet6RW.wrap(buffer, 1, buffer.capacity());
+            }
+
+            private ProxyAddressInet6Builder wrap()
+            {
+                addressRW.wrap(scratchBuffer, 0, scratchBuffer.capacity());
+                addressInet6RW.wrap(scratchBuffer, 1, scratchBuffer.capacity());
+                return this;
             }
 
             public ProxyAddressInet6Builder protocol(
@@ -310,11 +378,17 @@ public final class ProxyFunctions
 
             private final ProxyAddressUnixFW.Builder addressUnixRW = new ProxyAddressUnixFW.Builder();
 
+            private final MutableDirectBuffer pathRW = new UnsafeBuffer(new byte[108]);
+
             private ProxyAddressUnixBuilder()
             {
-                final MutableDirectBuffer buffer = new UnsafeBuffer(new byte[218]);
-                addressRW.wrap(buffer, 0, buffer.capacity());
-                addressUnixRW.wrap(buffer, 1, buffer.capacity());
+            }
+
+            private ProxyAddressUnixBuilder wrap()
+            {
+                addressRW.wrap(scratchBuffer, 0, scratchBuffer.capacity());
+                addressUnixRW.wrap(scratchBuffer, 1, scratchBuffer.capacity());
+                return this;
             }
 
             public ProxyAddressUnixBuilder protocol(
@@ -327,18 +401,18 @@ public final class ProxyFunctions
             public ProxyAddressUnixBuilder source(
                 String source) throws UnknownHostException
             {
-                MutableDirectBuffer sourceBuf = new UnsafeBuffer(new byte[108]);
-                sourceBuf.putStringWithoutLengthUtf8(0, source);
-                addressUnixRW.source(sourceBuf, 0, sourceBuf.capacity());
+                pathRW.setMemory(0, pathRW.capacity(), (byte) 0);
+                pathRW.putStringWithoutLengthUtf8(0, source);
+                addressUnixRW.source(pathRW, 0, pathRW.capacity());
                 return this;
             }
 
             public ProxyAddressUnixBuilder destination(
                 String destination) throws UnknownHostException
             {
-                MutableDirectBuffer destinationBuf = new UnsafeBuffer(new byte[108]);
-                destinationBuf.putStringWithoutLengthUtf8(0, destination);
-                addressUnixRW.destination(destinationBuf, 0, destinationBuf.capacity());
+                pathRW.setMemory(0, pathRW.capacity(), (byte) 0);
+                pathRW.putStringWithoutLengthUtf8(0, destination);
+                addressUnixRW.destination(pathRW, 0, pathRW.capacity());
                 return this;
             }
 
@@ -357,9 +431,13 @@ public final class ProxyFunctions
 
             private ProxyAddressNoneBuilder()
             {
-                final MutableDirectBuffer buffer = new UnsafeBuffer(new byte[1]);
-                addressRW.wrap(buffer, 0, buffer.capacity());
-                addressNoneRW.wrap(buffer, 1, buffer.capacity());
+            }
+
+            private ProxyAddressNoneBuilder wrap()
+            {
+                addressRW.wrap(scratchBuffer, 0, scratchBuffer.capacity());
+                addressNoneRW.wrap(scratchBuffer, 1, scratchBuffer.capacity());
+                return this;
             }
 
             public ProxyBeginExBuilder build()
@@ -374,10 +452,16 @@ public final class ProxyFunctions
             private final Array32FW.Builder<ProxyInfoFW.Builder, ProxyInfoFW> infosRW =
                     new Array32FW.Builder<>(new ProxyInfoFW.Builder(), new ProxyInfoFW());
 
+            private ProxySecureInfoBuilder secure;
+
             private ProxyInfoBuilder()
             {
-                final MutableDirectBuffer buffer = new UnsafeBuffer(new byte[1024]);
-                infosRW.wrap(buffer, 0, buffer.capacity());
+            }
+
+            private ProxyInfoBuilder wrap()
+            {
+                infosRW.wrap(scratchBuffer, 0, scratchBuffer.capacity());
+                return this;
             }
 
             public ProxyInfoBuilder alpn(
@@ -410,7 +494,11 @@ public final class ProxyFunctions
 
             public ProxySecureInfoBuilder secure()
             {
-                return new ProxySecureInfoBuilder();
+                if (secure == null)
+                {
+                    secure = new ProxySecureInfoBuilder();
+                }
+                return secure;
             }
 
             public ProxyBeginExBuilder build()
@@ -425,6 +513,14 @@ public final class ProxyFunctions
                 {
                 }
 
+                public ProxySecureInfoBuilder client(
+                    int flags,
+                    int verify)
+                {
+                    infosRW.item(i -> i.secure(s -> s.client(c -> c.flags(flags).verify(verify))));
+                    return this;
+                }
+
                 public ProxySecureInfoBuilder protocol(
                     String protocol)
                 {
@@ -475,8 +571,10 @@ public final class ProxyFunctions
         private final ProxyBeginExFW beginExRO = new ProxyBeginExFW();
 
         private Integer typeId;
+        private ProxyAddressFamily family;
         private Predicate<ProxyAddressFW> address;
-        private Predicate<Array32FW<ProxyInfoFW>> infos;
+        private ProxyInfoMatcherBuilder infos;
+        private boolean stackless;
 
         public ProxyBeginExMatcherBuilder typeId(
             int typeId)
@@ -485,10 +583,17 @@ public final class ProxyFunctions
             return this;
         }
 
+        public ProxyBeginExMatcherBuilder stackless()
+        {
+            this.stackless = true;
+            return this;
+        }
+
         public ProxyAddressInetMatcherBuilder addressInet()
         {
             final ProxyAddressInetMatcherBuilder matcher = new ProxyAddressInetMatcherBuilder();
 
+            this.family = INET;
             this.address = matcher::match;
             return matcher;
         }
@@ -497,6 +602,7 @@ public final class ProxyFunctions
         {
             final ProxyAddressInet4MatcherBuilder matcher = new ProxyAddressInet4MatcherBuilder();
 
+            this.family = INET4;
             this.address = matcher::match;
             return matcher;
         }
@@ -505,6 +611,7 @@ public final class ProxyFunctions
         {
             final ProxyAddressInet6MatcherBuilder matcher = new ProxyAddressInet6MatcherBuilder();
 
+            this.family = INET6;
             this.address = matcher::match;
             return matcher;
         }
@@ -513,6 +620,7 @@ public final class ProxyFunctions
         {
             final ProxyAddressUnixMatcherBuilder matcher = new ProxyAddressUnixMatcherBuilder();
 
+            this.family = UNIX;
             this.address = matcher::match;
             return matcher;
         }
@@ -521,7 +629,8 @@ public final class ProxyFunctions
         {
             final ProxyAddressNoneMatcherBuilder matcher = new ProxyAddressNoneMatcherBuilder();
 
-            this.address = matcher::match;
+            this.family = NONE;
+            this.address = null;
             return matcher;
         }
 
@@ -529,7 +638,7 @@ public final class ProxyFunctions
         {
             final ProxyInfoMatcherBuilder matcher = new ProxyInfoMatcherBuilder();
 
-            this.infos = matcher::match;
+            this.infos = matcher;
             return matcher;
         }
 
@@ -549,16 +658,33 @@ public final class ProxyFunctions
             bufferRO.wrap(byteBuf);
             final ProxyBeginExFW beginEx = beginExRO.tryWrap(bufferRO, byteBuf.position(), byteBuf.capacity());
 
-            if (beginEx != null &&
-                matchTypeId(beginEx) &&
-                matchAddress(beginEx) &&
-                matchInfos(beginEx))
+            if (beginEx == null)
+            {
+                throw mismatch(byteBuf, UNDERFLOW, 0);
+            }
+
+            if (!matchTypeId(beginEx))
+            {
+                throw mismatch(byteBuf, TYPE_ID, FIELD_OFFSET_TYPE_ID);
+            }
+
+            if (!matchAddressFamily(beginEx))
+            {
+                throw mismatch(byteBuf, ADDRESS_FAMILY, FIELD_OFFSET_ADDRESS);
+            }
+
+            if (!matchAddress(beginEx))
             {
-                byteBuf.position(byteBuf.position() + beginEx.sizeof());
-                return beginEx;
+                throw mismatch(byteBuf, ADDRESS, FIELD_OFFSET_ADDRESS);
             }
 
-            throw new Exception(beginEx.toString());
+            if (!matchInfos(beginEx))
+            {
+                throw infos.mismatch(byteBuf, beginEx);
+            }
+
+            byteBuf.position(byteBuf.position() + beginEx.sizeof());
+            return beginEx;
         }
 
         private boolean matchTypeId(
@@ -567,6 +693,12 @@ public final class ProxyFunctions
             return typeId == beginEx.typeId();
         }
 
+        private boolean matchAddressFamily(
+            ProxyBeginExFW beginEx)
+        {
+            return family == null || family == beginEx.address().kind();
+        }
+
         private boolean matchAddress(
             ProxyBeginExFW beginEx)
         {
@@ -576,7 +708,26 @@ public final class ProxyFunctions
         private boolean matchInfos(
             ProxyBeginExFW beginEx)
         {
-            return infos == null || infos.test(beginEx.infos());
+            return infos == null || infos.match(beginEx.infos());
+        }
+
+        private ProxyBeginExMismatchException mismatch(
+            ByteBuffer byteBuf,
+            ProxyBeginExMismatch mismatch,
+            int offset)
+        {
+            return mismatch(byteBuf, mismatch, null, null, offset);
+        }
+
+        private ProxyBeginExMismatchException mismatch(
+            ByteBuffer byteBuf,
+            ProxyBeginExMismatch mismatch,
+            ProxyInfoType infoType,
+            ProxySecureInfoType secureInfoType,
+            int offset)
+        {
+            return new ProxyBeginExMismatchException(byteBuf, byteBuf.position(), mismatch,
+                    infoType, secureInfoType, offset, !stackless);
         }
 
         public final class ProxyAddressInetMatcherBuilder
@@ -634,7 +785,7 @@ public final class ProxyFunctions
             private boolean match(
                 ProxyAddressFW address)
             {
-                return address.kind() == INET && match(address.inet());
+                return match(address.inet());
             }
 
             private boolean match(
@@ -737,7 +888,7 @@ public final class ProxyFunctions
             private boolean match(
                 ProxyAddressFW address)
             {
-                return address.kind() == INET4 && match(address.inet4());
+                return match(address.inet4());
             }
 
             private boolean match(
@@ -840,7 +991,7 @@ public final class ProxyFunctions
             private boolean match(
                 ProxyAddressFW address)
             {
-                return address.kind() == INET6 && match(address.inet6());
+                return match(address.inet6());
             }
 
             private boolean match(
@@ -927,7 +1078,7 @@ public final class ProxyFunctions
             private boolean match(
                 ProxyAddressFW address)
             {
-                return address.kind() == UNIX && match(address.unix());
+                return match(address.unix());
             }
 
             private boolean match(
@@ -967,53 +1118,54 @@ public final class ProxyFunctions
             {
                 return ProxyBeginExMatcherBuilder.this;
             }
-
-            private boolean match(
-                ProxyAddressFW address)
-            {
-                return address.kind() == NONE;
-            }
         }
 
         public final class ProxyInfoMatcherBuilder
         {
-            private final Map<ProxyInfoType, Predicate<ProxyInfoFW>> matchers;
+            private static final int EXPECTED_INFOS_INITIAL = 4;
+
+            private final MutableDirectBuffer encodeBuffer = new UnsafeBuffer(new byte[1024]);
+            private final ProxyInfoFW.Builder infoRW = new ProxyInfoFW.Builder();
+            private final ProxyInfoFW infoRO = new ProxyInfoFW();
+            private final DirectBuffer actualRO = new UnsafeBuffer(0L, 0);
+
+            private int[] expectedKinds = new int[EXPECTED_INFOS_INITIAL];
+            private DirectBuffer[] expectedInfos = new DirectBuffer[EXPECTED_INFOS_INITIAL];
+            private boolean[] matched = new boolean[EXPECTED_INFOS_INITIAL];
+            private int expectedCount;
+            private int unmatched;
+
             private ProxySecureInfoMatcherBuilder secure;
 
             private ProxyInfoMatcherBuilder()
             {
-                matchers = new EnumMap<>(ProxyInfoType.class);
             }
 
             public ProxyInfoMatcherBuilder alpn(
                 String alpn)
             {
-                final String8FW alpn8 = new String8FW(alpn);
-                matchers.put(ALPN, info -> alpn8.equals(info.alpn()));
+                expect(infoRW().alpn(alpn).build());
                 return this;
             }
 
             public ProxyInfoMatcherBuilder authority(
                 String authority)
             {
-                final String16FW authority16 = new String16FW(authority);
-                matchers.put(AUTHORITY, info -> authority16.equals(info.authority()));
+                expect(infoRW().authority(authority).build());
                 return this;
             }
 
             public ProxyInfoMatcherBuilder identity(
                 byte[] identity)
             {
-                final DirectBuffer identityBuf = new UnsafeBuffer(identity);
-                matchers.put(IDENTITY, info -> identityBuf.equals(info.identity().value().value()));
+                expect(infoRW().identity(id -> id.value(v -> v.set(identity))).build());
                 return this;
             }
 
             public ProxyInfoMatcherBuilder namespace(
                 String namespace)
             {
-                final String16FW namespace16 = new String16FW(namespace);
-                matchers.put(NAMESPACE, info -> namespace16.equals(info.namespace()));
+                expect(infoRW().namespace(namespace).build());
                 return this;
             }
 
@@ -1023,7 +1175,6 @@ public final class ProxyFunctions
                 {
                     secure = new ProxySecureInfoMatcherBuilder();
                 }
-                matchers.put(SECURE, info -> secure.match(info.secure()));
                 return secure;
             }
 
@@ -1032,69 +1183,149 @@ public final class ProxyFunctions
                 return ProxyBeginExMatcherBuilder.this;
             }
 
+            private ProxyInfoFW.Builder infoRW()
+            {
+                return infoRW.wrap(encodeBuffer, 0, encodeBuffer.capacity());
+            }
+
+            private void expect(
+                ProxyInfoFW info)
+            {
+                final int kind = kind(info);
+
+                int index = 0;
+                while (index < expectedCount && expectedKinds[index] != kind)
+                {
+                    index++;
+                }
+
+                if (index == expectedCount)
+                {
+                    if (expectedCount == expectedKinds.length)
+                    {
+                        final int capacity = expectedCount << 1;
+                        expectedKinds = Arrays.copyOf(expectedKinds, capacity);
+                        expectedInfos = Arrays.copyOf(expectedInfos, capacity);
+                        matched = Arrays.copyOf(matched, capacity);
+                    }
+
+                    expectedKinds[index] = kind;
+                    expectedCount++;
+                }
+
+                final byte[] bytes = new byte[info.sizeof()];
+                info.buffer().getBytes(info.offset(), bytes);
+                expectedInfos[index] = new UnsafeBuffer(bytes);
+            }
+
             private boolean match(
                 Array32FW<ProxyInfoFW> infos)
             {
-                MutableInteger match = new MutableInteger(0);
-                infos.forEach(info -> match.value += match(info) ? 1 : 0);
-                return match.value == (matchers.containsKey(SECURE)
-                        ? matchers.size() + secure.matchers.size() - 1
-                        : matchers.size());
+                final DirectBuffer items = infos.items();
+
+                Arrays.fill(matched, 0, expectedCount, false);
+                for (int offset = 0; offset < items.capacity(); )
+                {
+                    final ProxyInfoFW info = infoRO.wrap(items, offset, items.capacity());
+                    final int kind = kind(info);
+
+                    for (int index = 0; index < expectedCount; index++)
+                    {
+                        if (expectedKinds[index] == kind)
+                        {
+                            actualRO.wrap(items, offset, info.sizeof());
+                            matched[index] |= expectedInfos[index].equals(actualRO);
+                            break;
+                        }
+                    }
+
+                    offset = info.limit();
+                }
+
+                unmatched = 0;
+                while (unmatched < expectedCount && matched[unmatched])
+                {
+                    unmatched++;
+                }
+
+                return unmatched == expectedCount;
             }
 
-            private boolean match(
+            private ProxyBeginExMismatchException mismatch(
+                ByteBuffer byteBuf,
+                ProxyBeginExFW beginEx)
+            {
+                final Array32FW<ProxyInfoFW> infos = beginEx.infos();
+                final DirectBuffer items = infos.items();
+                final int kind = expectedKinds[unmatched];
+
+                int offset = 0;
+                while (offset < items.capacity() && kind(infoRO.wrap(items, offset, items.capacity())) != kind)
+                {
+                    offset = infoRO.limit();
+                }
+
+                final boolean secure = kind >> Byte.SIZE != 0;
+                final ProxyInfoType infoType = ProxyInfoType.valueOf(secure ? kind >> Byte.SIZE : kind);
+                final ProxySecureInfoType secureInfoType = secure ? ProxySecureInfoType.valueOf(kind & 0xff) : null;
+
+                return ProxyBeginExMatcherBuilder.this.mismatch(byteBuf, secure ? SECURE_INFO : INFO,
+                        infoType, secureInfoType, infos.fieldsOffset() - beginEx.offset() + offset);
+            }
+
+            private int kind(
                 ProxyInfoFW info)
             {
-                final Predicate<ProxyInfoFW> matcher = matchers.get(info.kind());
-                return matcher != null && matcher.test(info);
+                final int kind = info.kind().value();
+                return info.kind() == SECURE ? kind << Byte.SIZE | info.secure().kind().value() : kind;
             }
 
             public final class ProxySecureInfoMatcherBuilder
             {
-                private final Map<ProxySecureInfoType, Predicate<ProxySecureInfoFW>> matchers;
-
                 private ProxySecureInfoMatcherBuilder()
                 {
-                    matchers = new EnumMap<>(ProxySecureInfoType.class);
+                }
+
+                public ProxySecureInfoMatcherBuilder client(
+                    int flags,
+                    int verify)
+                {
+                    expect(infoRW().secure(s -> s.client(c -> c.flags(flags).verify(verify))).build());
+                    return this;
                 }
 
                 public ProxySecureInfoMatcherBuilder protocol(
                     String protocol)
                 {
-                    final String8FW protocol8 = new String8FW(protocol);
-                    matchers.put(PROTOCOL, info -> protocol8.equals(info.protocol()));
+                    expect(infoRW().secure(s -> s.protocol(protocol)).build());
                     return this;
                 }
 
                 public ProxySecureInfoMatcherBuilder cipher(
                     String cipher)
                 {
-                    final String8FW cipher8 = new String8FW(cipher);
-                    matchers.put(CIPHER, info -> cipher8.equals(info.cipher()));
+                    expect(infoRW().secure(s -> s.cipher(cipher)).build());
                     return this;
                 }
 
                 public ProxySecureInfoMatcherBuilder signature(
                     String signature)
                 {
-                    final String8FW signature8 = new String8FW(signature);
-                    matchers.put(SIGNATURE, info -> signature8.equals(info.signature()));
+                    expect(infoRW().secure(s -> s.signature(signature)).build());
                     return this;
                 }
 
                 public ProxySecureInfoMatcherBuilder name(
                     String name)
                 {
-                    final String16FW name16 = new String16FW(name);
-                    matchers.put(NAME, info -> name16.equals(info.name()));
+                    expect(infoRW().secure(s -> s.name(name)).build());
                     return this;
                 }
 
                 public ProxySecureInfoMatcherBuilder key(
                     String key)
                 {
-                    final String8FW key8 = new String8FW(key);
-                    matchers.put(KEY, info -> key8.equals(info.key()));
+                    expect(infoRW().secure(s -> s.key(key)).build());
                     return this;
                 }
 
@@ -1102,17 +1333,80 @@ public final class ProxyFunctions
                 {
                     return ProxyInfoMatcherBuilder.this;
                 }
-
-                private boolean match(
-                    ProxySecureInfoFW secureInfo)
-                {
-                    final Predicate<ProxySecureInfoFW> matcher = matchers.get(secureInfo.kind());
-                    return matcher != null && matcher.test(secureInfo);
-                }
             }
         }
     }
 
+    public enum ProxyBeginExMismatch
+    {
+        UNDERFLOW,
+        TYPE_ID,
+        ADDRESS_FAMILY,
+        ADDRESS,
+        INFO,
+        SECURE_INFO
+    }
+
+    public static final class ProxyBeginExMismatchException extends Exception
+    {
+        private static final long serialVersionUID = 1L;
+
+        private final byte[] bytes;
+        private final ProxyBeginExMismatch mismatch;
+        private final ProxyInfoType infoType;
+        private final ProxySecureInfoType secureInfoType;
+        private final int offset;
+
+        private ProxyBeginExMismatchException(
+            ByteBuffer byteBuf,
+            int position,
+            ProxyBeginExMismatch mismatch,
+            ProxyInfoType infoType,
+            ProxySecureInfoType secureInfoType,
+            int offset,
+            boolean writableStackTrace)
+        {
+            super(null, null, false, writableStackTrace);
+            this.bytes = new byte[byteBuf.limit() - position];
+            byteBuf.duplicate().position(position).get(bytes);
+            this.mismatch = mismatch;
+            this.infoType = infoType;
+            this.secureInfoType = secureInfoType;
+            this.offset = offset;
+        }
+
+        public ProxyBeginExMismatch mismatch()
+        {
+            return mismatch;
+        }
+
+        public ProxyInfoType infoType()
+        {
+            return infoType;
+        }
+
+        public ProxySecureInfoType secureInfoType()
+        {
+            return secureInfoType;
+        }
+
+        public int offset()
+        {
+            return offset;
+        }
+
+        @Override
+        public String getMessage()
+        {
+            final DirectBuffer buffer = new UnsafeBuffer(bytes);
+            final ProxyBeginExFW beginEx = new ProxyBeginExFW().tryWrap(buffer, 0, buffer.capacity());
+            final Object kind = secureInfoType != null ? secureInfoType : infoType;
+
+            return String.format("%s%s mismatch at offset %d: %s",
+                    mismatch, kind != null ? " " + kind : "", offset, beginEx);
+        }
+    }
+
     public static class Mapper extends FunctionMapperSpi.Reflective
     {
         public Mapper()
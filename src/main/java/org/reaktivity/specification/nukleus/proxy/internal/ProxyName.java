@@ -0,0 +1,119 @@
+/**
+ * Copyright 2016-2021 The Reaktivity Project
+ *
+ * The Reaktivity Project licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package org.reaktivity.specification.nukleus.proxy.internal;
+
+import static java.nio.charset.StandardCharsets.US_ASCII;
+
+import org.agrona.DirectBuffer;
+
+/**
+ * Matches a host name such as an {@code authority} or SSL {@code name}, either exactly or, when prefixed
+ * by {@code *.}, as any name ending with the remaining labels.
+ * <p>
+ * Names are compared ignoring ASCII case, and hashed from the last label towards the first so that the
+ * hash of every suffix is available in a single pass over a candidate name.
+ */
+public final class ProxyName
+{
+    static final long HASH_INITIAL = 0xcbf29ce484222325L;
+
+    private static final long HASH_PRIME = 0x100000001b3L;
+    private static final String WILDCARD = "*.";
+
+    private final byte[] labels;
+    private final boolean wildcard;
+    private final long hash;
+
+    private ProxyName(
+        byte[] labels,
+        boolean wildcard)
+    {
+        this.labels = labels;
+        this.wildcard = wildcard;
+
+        long hash = HASH_INITIAL;
+        for (int index = labels.length - 1; index >= 0; index--)
+        {
+            hash = hash(hash, labels[index]);
+        }
+        this.hash = hash;
+    }
+
+    public boolean wildcard()
+    {
+        return wildcard;
+    }
+
+    public boolean matches(
+        DirectBuffer name)
+    {
+        return name != null && matches(name, 0, name.capacity());
+    }
+
+    public boolean matches(
+        DirectBuffer buffer,
+        int offset,
+        int length)
+    {
+        final int prefix = length - labels.length;
+
+        boolean matches = wildcard ? prefix > 1 && buffer.getByte(offset + prefix - 1) == '.' : prefix == 0;
+        for (int index = 0; matches && index < labels.length; index++)
+        {
+            matches = lowerCase(buffer.getByte(offset + prefix + index)) == labels[index];
+        }
+
+        return matches;
+    }
+
+    long hash()
+    {
+        return hash;
+    }
+
+    static long hash(
+        long hash,
+        byte octet)
+    {
+        return (hash ^ lowerCase(octet)) * HASH_PRIME;
+    }
+
+    public static ProxyName of(
+        String name)
+    {
+        final boolean wildcard = name.startsWith(WILDCARD);
+        final String labels = wildcard ? name.substring(WILDCARD.length()) : name;
+
+        if (labels.isEmpty() || labels.indexOf('*') != -1)
+        {
+            throw new IllegalArgumentException(String.format("Invalid name: %s", name));
+        }
+
+        final byte[] bytes = labels.getBytes(US_ASCII);
+        for (int index = 0; index < bytes.length; index++)
+        {
+            bytes[index] = lowerCase(bytes[index]);
+        }
+
+        return new ProxyName(bytes, wildcard);
+    }
+
+    private static byte lowerCase(
+        byte octet)
+    {
+        return octet >= 'A' && octet <= 'Z' ? (byte) (octet + ('a' - 'A')) : octet;
+    }
+}
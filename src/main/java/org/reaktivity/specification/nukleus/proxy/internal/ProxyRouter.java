@@ -0,0 +1,513 @@
+/**
+ * Copyright 2016-2021 The Reaktivity Project
+ *
+ * The Reaktivity Project licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package org.reaktivity.specification.nukleus.proxy.internal;
+
+import static org.reaktivity.specification.nukleus.proxy.internal.ProxyCondition.PORT_MAX;
+import static org.reaktivity.specification.nukleus.proxy.internal.ProxyCondition.PORT_MIN;
+import static org.reaktivity.specification.nukleus.proxy.internal.types.ProxySecureInfoType.NAME;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
+
+import org.agrona.DirectBuffer;
+import org.agrona.collections.Int2ObjectHashMap;
+import org.agrona.collections.IntArrayList;
+import org.agrona.collections.Long2ObjectHashMap;
+import org.agrona.collections.LongArrayList;
+import org.reaktivity.specification.nukleus.proxy.internal.types.OctetsFW;
+import org.reaktivity.specification.nukleus.proxy.internal.types.ProxyAddressFW;
+import org.reaktivity.specification.nukleus.proxy.internal.types.ProxyAddressFamily;
+import org.reaktivity.specification.nukleus.proxy.internal.types.ProxyInfoFW;
+import org.reaktivity.specification.nukleus.proxy.internal.types.stream.ProxyBeginExFW;
+
+/**
+ * Resolves the route for a {@code ProxyBeginEx}, where routes are the ordered {@code when} conditions
+ * of a proxy binding.
+ * <p>
+ * When more than one route matches, the route with the longest destination prefix wins, then the
+ * route with the longest source prefix, then the route declared first.
+ * <p>
+ * The indexed strategy walks a binary trie of destination prefixes, and at each prefix only considers
+ * routes with the same exact destination port, routes whose destination port range covers the request,
+ * routes whose {@code authority} or SSL {@code name} shares a hashed suffix with the request, and routes
+ * with none of these.
+ * <p>
+ * Destination port ranges are split into sorted, non-overlapping segments at each range boundary, each
+ * segment holding the routes whose range covers it, so the segment for a port is found by binary search.
+ */
+public abstract class ProxyRouter
+{
+    public static final int ROUTE_NONE = -1;
+
+    private static final int PORT_NONE = -1;
+
+    final ProxyCondition[] conditions;
+    final int[] ranked;
+
+    private ProxyRouter(
+        List<ProxyCondition> conditions)
+    {
+        this.conditions = conditions.toArray(new ProxyCondition[0]);
+        this.ranked = IntStream.range(0, this.conditions.length)
+                               .boxed()
+                               .sorted(Comparator.<Integer>comparingInt(r -> -prefixLength(this.conditions[r].destination))
+                                                 .thenComparingInt(r -> -prefixLength(this.conditions[r].source))
+                                                 .thenComparingInt(r -> r))
+                               .mapToInt(Integer::intValue)
+                               .toArray();
+    }
+
+    public abstract int resolve(
+        ProxyBeginExFW beginEx);
+
+    public static ProxyRouter linear(
+        List<ProxyCondition> conditions)
+    {
+        return new LinearRouter(conditions);
+    }
+
+    public static ProxyRouter indexed(
+        List<ProxyCondition> conditions)
+    {
+        return new IndexedRouter(conditions);
+    }
+
+    private static int prefixLength(
+        ProxyCidr cidr)
+    {
+        return cidr != null ? cidr.length() : 0;
+    }
+
+    private static final class LinearRouter extends ProxyRouter
+    {
+        private LinearRouter(
+            List<ProxyCondition> conditions)
+        {
+            super(conditions);
+        }
+
+        @Override
+        public int resolve(
+            ProxyBeginExFW beginEx)
+        {
+            int route = ROUTE_NONE;
+
+            for (int rank = 0; route == ROUTE_NONE && rank < ranked.length; rank++)
+            {
+                if (conditions[ranked[rank]].matches(beginEx))
+                {
+                    route = ranked[rank];
+                }
+            }
+
+            return route;
+        }
+    }
+
+    private static final class IndexedRouter extends ProxyRouter
+    {
+        private static final ProxyAddressFamily[] FAMILIES = ProxyAddressFamily.values();
+
+        private final Node[] roots;
+        private final Node[] path;
+        private final NameHashes authorities;
+        private final NameHashes names;
+        private final Consumer<ProxyInfoFW> hashInfo;
+
+        private IntArrayList[] candidates;
+        private int[] cursors;
+        private int count;
+
+        private IndexedRouter(
+            List<ProxyCondition> conditions)
+        {
+            super(conditions);
+            this.roots = new Node[FAMILIES.length];
+            this.path = new Node[129];
+            this.authorities = new NameHashes();
+            this.names = new NameHashes();
+            this.hashInfo = this::hashInfo;
+            this.candidates = new IntArrayList[8];
+            this.cursors = new int[8];
+
+            for (int index = 0; index < roots.length; index++)
+            {
+                roots[index] = new Node();
+            }
+
+            for (int rank = 0; rank < ranked.length; rank++)
+            {
+                final ProxyCondition condition = this.conditions[ranked[rank]];
+                for (ProxyAddressFamily family : FAMILIES)
+                {
+                    if (condition.family == null || condition.family == family)
+                    {
+                        roots[family.ordinal()].insert(condition, rank);
+                    }
+                }
+            }
+        }
+
+        @Override
+        public int resolve(
+            ProxyBeginExFW beginEx)
+        {
+            final ProxyAddressFW address = beginEx.address();
+            final ProxyAddressFamily family = address.kind();
+
+            OctetsFW destination = null;
+            int port = PORT_NONE;
+
+            switch (family)
+            {
+            case INET:
+                port = address.inet().destinationPort();
+                break;
+            case INET4:
+                destination = address.inet4().destination();
+                port = address.inet4().destinationPort();
+                break;
+            case INET6:
+                destination = address.inet6().destination();
+                port = address.inet6().destinationPort();
+                break;
+            default:
+                break;
+            }
+
+            authorities.clear();
+            names.clear();
+            beginEx.infos().forEach(hashInfo);
+
+            Node node = roots[family.ordinal()];
+            int depth = 0;
+            path[depth++] = node;
+
+            if (destination != null)
+            {
+                final int bits = destination.sizeof() << 3;
+                for (int bit = 0; node != null && bit < bits; bit++)
+                {
+                    final byte octet = destination.buffer().getByte(destination.offset() + (bit >> 3));
+                    node = node.child((octet >> (7 - (bit & 0x07))) & 0x01);
+                    if (node != null)
+                    {
+                        path[depth++] = node;
+                    }
+                }
+            }
+
+            int route = ROUTE_NONE;
+            while (route == ROUTE_NONE && depth > 0)
+            {
+                path[--depth].collect(this, port);
+                route = select(beginEx);
+            }
+
+            return route;
+        }
+
+        private void hashInfo(
+            ProxyInfoFW info)
+        {
+            switch (info.kind())
+            {
+            case AUTHORITY:
+                authorities.add(info.authority().value());
+                break;
+            case SECURE:
+                if (info.secure().kind() == NAME)
+                {
+                    names.add(info.secure().name().value());
+                }
+                break;
+            default:
+                break;
+            }
+        }
+
+        private void candidates(
+            IntArrayList ranks)
+        {
+            if (ranks != null && !ranks.isEmpty())
+            {
+                if (count == candidates.length)
+                {
+                    candidates = Arrays.copyOf(candidates, count << 1);
+                    cursors = Arrays.copyOf(cursors, count << 1);
+                }
+
+                candidates[count] = ranks;
+                cursors[count] = 0;
+                count++;
+            }
+        }
+
+        private int select(
+            ProxyBeginExFW beginEx)
+        {
+            int route = ROUTE_NONE;
+
+            for (int next = next(); route == ROUTE_NONE && next != -1; next = next())
+            {
+                final int candidate = ranked[candidates[next].getInt(cursors[next]++)];
+                if (conditions[candidate].matches(beginEx))
+                {
+                    route = candidate;
+                }
+            }
+
+            count = 0;
+
+            return route;
+        }
+
+        private int next()
+        {
+            int next = -1;
+            int rank = Integer.MAX_VALUE;
+
+            for (int index = 0; index < count; index++)
+            {
+                final IntArrayList ranks = candidates[index];
+                if (cursors[index] < ranks.size() && ranks.getInt(cursors[index]) < rank)
+                {
+                    next = index;
+                    rank = ranks.getInt(cursors[index]);
+                }
+            }
+
+            return next;
+        }
+    }
+
+    private static final class Node
+    {
+        private final Node[] children = new Node[2];
+        private final Int2ObjectHashMap<IntArrayList> byPort = new Int2ObjectHashMap<>();
+        private final NameIndex byAuthority = new NameIndex();
+        private final NameIndex bySecureName = new NameIndex();
+        private final PortRanges byPortRange = new PortRanges();
+        private final IntArrayList rest = new IntArrayList();
+
+        Node child(
+            int bit)
+        {
+            return children[bit];
+        }
+
+        void insert(
+            ProxyCondition condition,
+            int rank)
+        {
+            Node node = this;
+
+            final ProxyCidr destination = condition.destination;
+            if (destination != null)
+            {
+                for (int bit = 0; bit < destination.length(); bit++)
+                {
+                    final int index = destination.bit(bit);
+                    if (node.children[index] == null)
+                    {
+                        node.children[index] = new Node();
+                    }
+                    node = node.children[index];
+                }
+            }
+
+            if (condition.authority != null)
+            {
+                node.byAuthority.insert(condition.authority, rank);
+            }
+            else if (condition.secureName != null)
+            {
+                node.bySecureName.insert(condition.secureName, rank);
+            }
+            else if (condition.hasExactDestinationPort())
+            {
+                node.byPort.computeIfAbsent(condition.destinationPortMin, p -> new IntArrayList()).addInt(rank);
+            }
+            else if (condition.destinationPortMin != PORT_MIN || condition.destinationPortMax != PORT_MAX)
+            {
+                node.byPortRange.insert(condition.destinationPortMin, condition.destinationPortMax, rank);
+            }
+            else
+            {
+                node.rest.addInt(rank);
+            }
+        }
+
+        void collect(
+            IndexedRouter router,
+            int port)
+        {
+            router.candidates(byPort.get(port));
+            byPortRange.collect(router, port);
+            byAuthority.collect(router, router.authorities);
+            bySecureName.collect(router, router.names);
+            router.candidates(rest);
+        }
+    }
+
+    private static final class PortRanges
+    {
+        private int[] starts = { PORT_MIN };
+        private IntArrayList[] ranks = { new IntArrayList() };
+        private int count = 1;
+
+        void insert(
+            int portMin,
+            int portMax,
+            int rank)
+        {
+            final int first = split(portMin);
+            final int last = portMax < PORT_MAX ? split(portMax + 1) : count;
+
+            for (int index = first; index < last; index++)
+            {
+                ranks[index].addInt(rank);
+            }
+        }
+
+        void collect(
+            IndexedRouter router,
+            int port)
+        {
+            if (port != PORT_NONE)
+            {
+                router.candidates(ranks[segment(port)]);
+            }
+        }
+
+        private int split(
+            int port)
+        {
+            final int index = segment(port);
+
+            int split = index;
+            if (starts[index] != port)
+            {
+                if (count == starts.length)
+                {
+                    starts = Arrays.copyOf(starts, count << 1);
+                    ranks = Arrays.copyOf(ranks, count << 1);
+                }
+
+                split = index + 1;
+                System.arraycopy(starts, split, starts, split + 1, count - split);
+                System.arraycopy(ranks, split, ranks, split + 1, count - split);
+                starts[split] = port;
+                ranks[split] = new IntArrayList();
+                ranks[index].forEachOrderedInt(ranks[split]::addInt);
+                count++;
+            }
+
+            return split;
+        }
+
+        private int segment(
+            int port)
+        {
+            int low = 0;
+            int high = count - 1;
+
+            while (low < high)
+            {
+                final int mid = (low + high + 1) >>> 1;
+                if (starts[mid] <= port)
+                {
+                    low = mid;
+                }
+                else
+                {
+                    high = mid - 1;
+                }
+            }
+
+            return low;
+        }
+    }
+
+    private static final class NameIndex
+    {
+        private final Long2ObjectHashMap<IntArrayList> exact = new Long2ObjectHashMap<>();
+        private final Long2ObjectHashMap<IntArrayList> wildcard = new Long2ObjectHashMap<>();
+
+        void insert(
+            ProxyName name,
+            int rank)
+        {
+            final Long2ObjectHashMap<IntArrayList> byHash = name.wildcard() ? wildcard : exact;
+            byHash.computeIfAbsent(name.hash(), h -> new IntArrayList()).addInt(rank);
+        }
+
+        void collect(
+            IndexedRouter router,
+            NameHashes hashes)
+        {
+            if (!exact.isEmpty())
+            {
+                for (int index = 0; index < hashes.names.size(); index++)
+                {
+                    router.candidates(exact.get(hashes.names.getLong(index)));
+                }
+            }
+
+            if (!wildcard.isEmpty())
+            {
+                for (int index = 0; index < hashes.suffixes.size(); index++)
+                {
+                    router.candidates(wildcard.get(hashes.suffixes.getLong(index)));
+                }
+            }
+        }
+    }
+
+    private static final class NameHashes
+    {
+        private final LongArrayList names = new LongArrayList();
+        private final LongArrayList suffixes = new LongArrayList();
+
+        void clear()
+        {
+            names.clear();
+            suffixes.clear();
+        }
+
+        void add(
+            DirectBuffer name)
+        {
+            if (name != null)
+            {
+                long hash = ProxyName.HASH_INITIAL;
+                for (int index = name.capacity() - 1; index >= 0; index--)
+                {
+                    final byte octet = name.getByte(index);
+                    if (octet == '.')
+                    {
+                        suffixes.addLong(hash);
+                    }
+                    hash = ProxyName.hash(hash, octet);
+                }
+                names.addLong(hash);
+            }
+        }
+    }
+}
@@ -0,0 +1,65 @@
+/**
+ * Copyright 2016-2021 The Reaktivity Project
+ *
+ * The Reaktivity Project licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package org.reaktivity.specification.nukleus.proxy.internal;
+
+import org.reaktivity.specification.nukleus.proxy.internal.ProxyV2Decoder.ProxyV2Reject;
+import org.reaktivity.specification.nukleus.proxy.internal.types.ProxyAddressFamily;
+
+/**
+ * Names of the metrics exported by each proxy server binding for PROXY v2 headers.
+ * <p>
+ * Each connection that sends a PROXY v2 header either increments exactly one {@link #accepted(ProxyAddressFamily)}
+ * counter, by decoded address family, and records one {@link #HEADER_LATENCY} sample, or increments exactly one
+ * {@link #rejected(ProxyV2Reject)} counter or {@link #REJECTED_HEADER_TIMEOUT}. A scenario opening N connections
+ * therefore moves these counters by N in total. A connection passed through without a PROXY signature, when the
+ * header is optional, moves no counter. The expected deltas for each {@code network.v2} scenario are listed in the
+ * README. PROXY v1 headers are not covered.
+ */
+public final class ProxyTelemetry
+{
+    /**
+     * Histogram of the time from the network {@code BEGIN} until the PROXY header is complete.
+     */
+    public static final String HEADER_LATENCY = "proxy.header.latency";
+
+    public static final String REJECTED_HEADER_TIMEOUT = "proxy.rejected.header.timeout";
+
+    private static final String ACCEPTED_PREFIX = "proxy.accepted.";
+    private static final String REJECTED_PREFIX = "proxy.rejected.";
+
+    public static String accepted(
+        ProxyAddressFamily family)
+    {
+        return ACCEPTED_PREFIX + name(family.name());
+    }
+
+    public static String rejected(
+        ProxyV2Reject reason)
+    {
+        return REJECTED_PREFIX + name(reason.name());
+    }
+
+    private static String name(
+        String constant)
+    {
+        return constant.toLowerCase().replace('_', '.');
+    }
+
+    private ProxyTelemetry()
+    {
+        // utility
+    }
+}
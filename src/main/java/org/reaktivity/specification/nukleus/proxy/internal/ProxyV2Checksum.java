@@ -0,0 +1,91 @@
+/**
+ * Copyright 2016-2021 The Reaktivity Project
+ *
+ * The Reaktivity Project licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package org.reaktivity.specification.nukleus.proxy.internal;
+
+import static java.nio.ByteOrder.BIG_ENDIAN;
+import static org.reaktivity.specification.nukleus.proxy.internal.ProxyV2Decoder.CRC32C_SIZE;
+
+import java.nio.ByteBuffer;
+import java.util.zip.CRC32C;
+
+import org.agrona.DirectBuffer;
+
+/**
+ * Computes the {@code PP2_TYPE_CRC32C} checksum of a PROXY v2 header as if its checksum field were zero,
+ * reading the header where it lies rather than copying it to zero the field.
+ * <p>
+ * Heap and {@code ByteBuffer} backed headers are passed to {@link CRC32C} directly, which the JVM
+ * intrinsifies on x86 and ARM.
+ */
+public final class ProxyV2Checksum
+{
+    private static final byte[] CHECKSUM_ZERO = new byte[CRC32C_SIZE];
+
+    private final CRC32C crc32c = new CRC32C();
+
+    public int checksum(
+        DirectBuffer buffer,
+        int offset,
+        int length,
+        int checksumOffset)
+    {
+        final byte[] array = buffer.byteArray();
+        final ByteBuffer byteBuf = array == null && buffer.byteBuffer() != null ? buffer.byteBuffer().duplicate() : null;
+        final int checksumLimit = checksumOffset + CRC32C_SIZE;
+
+        crc32c.reset();
+        update(buffer, array, byteBuf, offset, checksumOffset);
+        crc32c.update(CHECKSUM_ZERO, 0, CRC32C_SIZE);
+        update(buffer, array, byteBuf, checksumLimit, offset + length);
+
+        return (int) crc32c.getValue();
+    }
+
+    public boolean verify(
+        DirectBuffer buffer,
+        int offset,
+        int length,
+        int checksumOffset)
+    {
+        return checksum(buffer, offset, length, checksumOffset) == buffer.getInt(checksumOffset, BIG_ENDIAN);
+    }
+
+    private void update(
+        DirectBuffer buffer,
+        byte[] array,
+        ByteBuffer byteBuf,
+        int offset,
+        int limit)
+    {
+        if (array != null)
+        {
+            crc32c.update(array, (int) buffer.wrapAdjustment() + offset, limit - offset);
+        }
+        else if (byteBuf != null)
+        {
+            final int position = (int) buffer.wrapAdjustment() + offset;
+            byteBuf.limit(position + limit - offset).position(position);
+            crc32c.update(byteBuf);
+        }
+        else
+        {
+            for (int index = offset; index < limit; index++)
+            {
+                crc32c.update(buffer.getByte(index));
+            }
+        }
+    }
+}
@@ -0,0 +1,613 @@
+/**
+ * Copyright 2016-2021 The Reaktivity Project
+ *
+ * The Reaktivity Project licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package org.reaktivity.specification.nukleus.proxy.internal;
+
+import static java.nio.ByteOrder.BIG_ENDIAN;
+import static java.nio.charset.StandardCharsets.US_ASCII;
+import static org.reaktivity.specification.nukleus.proxy.internal.ProxyV2Decoder.ProxyV2Reject.ADDRESS_FAMILY_MISMATCH;
+import static org.reaktivity.specification.nukleus.proxy.internal.ProxyV2Decoder.ProxyV2Reject.ADDRESS_UNDERFLOW;
+import static org.reaktivity.specification.nukleus.proxy.internal.ProxyV2Decoder.ProxyV2Reject.COMMAND_MISMATCH;
+import static org.reaktivity.specification.nukleus.proxy.internal.ProxyV2Decoder.ProxyV2Reject.CRC32C_MISMATCH;
+import static org.reaktivity.specification.nukleus.proxy.internal.ProxyV2Decoder.ProxyV2Reject.CRC32C_OVERFLOW;
+import static org.reaktivity.specification.nukleus.proxy.internal.ProxyV2Decoder.ProxyV2Reject.CRC32C_UNDERFLOW;
+import static org.reaktivity.specification.nukleus.proxy.internal.ProxyV2Decoder.ProxyV2Reject.HEADER_MISMATCH;
+import static org.reaktivity.specification.nukleus.proxy.internal.ProxyV2Decoder.ProxyV2Reject.HEADER_OVERFLOW;
+import static org.reaktivity.specification.nukleus.proxy.internal.ProxyV2Decoder.ProxyV2Reject.SSL_UNDERFLOW;
+import static org.reaktivity.specification.nukleus.proxy.internal.ProxyV2Decoder.ProxyV2Reject.TLV_OVERFLOW;
+import static org.reaktivity.specification.nukleus.proxy.internal.ProxyV2Decoder.ProxyV2Reject.TLV_UNDERFLOW;
+import static org.reaktivity.specification.nukleus.proxy.internal.ProxyV2Decoder.ProxyV2Reject.VERSION_MISMATCH;
+import static org.reaktivity.specification.nukleus.proxy.internal.types.ProxyAddressProtocol.DATAGRAM;
+import static org.reaktivity.specification.nukleus.proxy.internal.types.ProxyAddressProtocol.STREAM;
+
+import java.util.function.Consumer;
+
+import org.agrona.DirectBuffer;
+import org.agrona.MutableDirectBuffer;
+import org.agrona.concurrent.UnsafeBuffer;
+import org.reaktivity.specification.nukleus.proxy.internal.types.Array32FW;
+import org.reaktivity.specification.nukleus.proxy.internal.types.ProxyAddressFW;
+import org.reaktivity.specification.nukleus.proxy.internal.types.ProxyAddressInet4FW;
+import org.reaktivity.specification.nukleus.proxy.internal.types.ProxyAddressInet6FW;
+import org.reaktivity.specification.nukleus.proxy.internal.types.ProxyAddressNoneFW;
+import org.reaktivity.specification.nukleus.proxy.internal.types.ProxyAddressProtocol;
+import org.reaktivity.specification.nukleus.proxy.internal.types.ProxyAddressProtocolFW;
+import org.reaktivity.specification.nukleus.proxy.internal.types.ProxyAddressUnixFW;
+import org.reaktivity.specification.nukleus.proxy.internal.types.ProxyIdentityFW;
+import org.reaktivity.specification.nukleus.proxy.internal.types.ProxyInfoFW;
+import org.reaktivity.specification.nukleus.proxy.internal.types.ProxySecureClientFW;
+import org.reaktivity.specification.nukleus.proxy.internal.types.ProxySecureInfoFW;
+import org.reaktivity.specification.nukleus.proxy.internal.types.String16FW;
+import org.reaktivity.specification.nukleus.proxy.internal.types.String8FW;
+import org.reaktivity.specification.nukleus.proxy.internal.types.stream.ProxyBeginExFW;
+
+public final class ProxyV2Decoder
+{
+    public static final int DECODE_UNDERFLOW = 0;
+    public static final int DECODE_REJECTED = -1;
+
+    public static final int HEADER_SIZE = 16;
+    public static final int HEADER_SIZE_MAX = HEADER_SIZE + 0xffff;
+
+    static final DirectBuffer SIGNATURE = new UnsafeBuffer("\r\n\r\n\0\r\nQUIT\n".getBytes(US_ASCII));
+
+    static final int SIGNATURE_SIZE = 12;
+    static final int VERSION_2 = 0x20;
+    static final int COMMAND_LOCAL = 0x00;
+    static final int COMMAND_PROXY = 0x01;
+    static final int FAMILY_UNSPEC = 0x00;
+    static final int FAMILY_INET = 0x10;
+    static final int FAMILY_INET6 = 0x20;
+    static final int FAMILY_UNIX = 0x30;
+    static final int PROTOCOL_UNSPEC = 0x00;
+    static final int PROTOCOL_STREAM = 0x01;
+    static final int PROTOCOL_DGRAM = 0x02;
+
+    static final int ADDRESS_SIZE_INET = 12;
+    static final int ADDRESS_SIZE_INET6 = 36;
+    static final int ADDRESS_SIZE_UNIX = 216;
+
+    static final int TLV_HEADER_SIZE = 3;
+    static final int TYPE_ALPN = 0x01;
+    static final int TYPE_AUTHORITY = 0x02;
+    static final int TYPE_CRC32C = 0x03;
+    static final int TYPE_UNIQUE_ID = 0x05;
+    static final int TYPE_SSL = 0x20;
+    static final int TYPE_SSL_VERSION = 0x21;
+    static final int TYPE_SSL_CN = 0x22;
+    static final int TYPE_SSL_CIPHER = 0x23;
+    static final int TYPE_SSL_SIG_ALG = 0x24;
+    static final int TYPE_SSL_KEY_ALG = 0x25;
+    static final int TYPE_NETNS = 0x30;
+
+    static final int SSL_HEADER_SIZE = 5;
+    static final int STRING8_MAX_LENGTH = 0xfe;
+    static final int CRC32C_SIZE = 4;
+
+    private static final int OFFSET_VERSION_COMMAND = 12;
+    private static final int OFFSET_FAMILY_PROTOCOL = 13;
+    private static final int OFFSET_LENGTH = 14;
+
+    private static final long SIGNATURE_PREFIX = SIGNATURE.getLong(0);
+    private static final int SIGNATURE_SUFFIX = SIGNATURE.getInt(8);
+
+    private final MutableDirectBuffer stringBuffer = new UnsafeBuffer(new byte[Short.BYTES + 0xffff]);
+    private final String8FW.Builder string8RW = new String8FW.Builder();
+    private final String16FW.Builder string16RW = new String16FW.Builder();
+
+    private final Consumer<Array32FW.Builder<ProxyInfoFW.Builder, ProxyInfoFW>> decodeTlvs = this::decodeTlvs;
+    private final Consumer<ProxyAddressFW.Builder> setAddress = this::setAddress;
+    private final Consumer<ProxyAddressInet4FW.Builder> setInet4 = this::setInet4;
+    private final Consumer<ProxyAddressInet6FW.Builder> setInet6 = this::setInet6;
+    private final Consumer<ProxyAddressUnixFW.Builder> setUnix = this::setUnix;
+    private final Consumer<ProxyAddressNoneFW.Builder> setNone = this::setNone;
+    private final Consumer<ProxyAddressProtocolFW.Builder> setProtocol = this::setProtocol;
+    private final Consumer<ProxyInfoFW.Builder> setInfo = this::setInfo;
+    private final Consumer<ProxyIdentityFW.Builder> setIdentity = this::setIdentity;
+    private final Consumer<ProxySecureInfoFW.Builder> setSecureInfo = this::setSecureInfo;
+    private final Consumer<ProxySecureClientFW.Builder> setSecureClient = this::setSecureClient;
+
+    private final ProxyV2Checksum checksum = new ProxyV2Checksum();
+    private final int maxHeaderSize;
+
+    private DirectBuffer buffer;
+    private int headerOffset;
+    private int family;
+    private ProxyAddressProtocol protocol;
+    private int addressOffset;
+    private int tlvsOffset;
+    private int tlvsLimit;
+    private int type;
+    private int valueOffset;
+    private int valueLength;
+    private ProxyV2Reject reject;
+
+    public enum ProxyV2Reject
+    {
+        HEADER_MISMATCH,
+        HEADER_OVERFLOW,
+        VERSION_MISMATCH,
+        COMMAND_MISMATCH,
+        ADDRESS_FAMILY_MISMATCH,
+        ADDRESS_UNDERFLOW,
+        TLV_UNDERFLOW,
+        TLV_OVERFLOW,
+        CRC32C_UNDERFLOW,
+        CRC32C_OVERFLOW,
+        CRC32C_MISMATCH,
+        SSL_UNDERFLOW
+    }
+
+    public ProxyV2Decoder()
+    {
+        this(HEADER_SIZE_MAX);
+    }
+
+    public ProxyV2Decoder(
+        int maxHeaderSize)
+    {
+        this.maxHeaderSize = maxHeaderSize;
+    }
+
+    public ProxyV2Reject reject()
+    {
+        return reject;
+    }
+
+    public int decode(
+        DirectBuffer buffer,
+        int offset,
+        int limit,
+        ProxyBeginExFW.Builder beginEx)
+    {
+        reject = null;
+
+        final int available = limit - offset;
+
+        if (!matchSignature(buffer, offset, available))
+        {
+            return reject(HEADER_MISMATCH);
+        }
+
+        if (available <= OFFSET_VERSION_COMMAND)
+        {
+            return DECODE_UNDERFLOW;
+        }
+
+        final int versionAndCommand = buffer.getByte(offset + OFFSET_VERSION_COMMAND) & 0xff;
+        final int command = versionAndCommand & 0x0f;
+
+        if ((versionAndCommand & 0xf0) != VERSION_2)
+        {
+            return reject(VERSION_MISMATCH);
+        }
+
+        if (command != COMMAND_LOCAL && command != COMMAND_PROXY)
+        {
+            return reject(COMMAND_MISMATCH);
+        }
+
+        if (available <= OFFSET_FAMILY_PROTOCOL)
+        {
+            return DECODE_UNDERFLOW;
+        }
+
+        final int familyAndProtocol = buffer.getByte(offset + OFFSET_FAMILY_PROTOCOL) & 0xff;
+        final int family = familyAndProtocol & 0xf0;
+        final int addressSize = addressSize(family, familyAndProtocol & 0x0f);
+
+        if (addressSize < 0)
+        {
+            return reject(ADDRESS_FAMILY_MISMATCH);
+        }
+
+        if (available < HEADER_SIZE)
+        {
+            return DECODE_UNDERFLOW;
+        }
+
+        final int length = buffer.getShort(offset + OFFSET_LENGTH, BIG_ENDIAN) & 0xffff;
+
+        if (command == COMMAND_PROXY && length < addressSize)
+        {
+            return reject(ADDRESS_UNDERFLOW);
+        }
+
+        final int headerSize = HEADER_SIZE + length;
+
+        if (headerSize > maxHeaderSize)
+        {
+            return reject(HEADER_OVERFLOW);
+        }
+
+        if (available < headerSize)
+        {
+            return DECODE_UNDERFLOW;
+        }
+
+        this.buffer = buffer;
+        this.headerOffset = offset;
+        this.family = command == COMMAND_PROXY ? family : FAMILY_UNSPEC;
+        this.addressOffset = offset + HEADER_SIZE;
+
+        beginEx.address(setAddress);
+
+        if (command == COMMAND_PROXY)
+        {
+            this.tlvsOffset = addressOffset + addressSize;
+            this.tlvsLimit = offset + headerSize;
+
+            beginEx.infos(decodeTlvs);
+        }
+
+        return reject == null ? headerSize : DECODE_REJECTED;
+    }
+
+    private void decodeTlvs(
+        Array32FW.Builder<ProxyInfoFW.Builder, ProxyInfoFW> infos)
+    {
+        final int limit = tlvsLimit;
+        int progress = tlvsOffset;
+
+        while (reject == null && progress < limit)
+        {
+            if (limit - progress < TLV_HEADER_SIZE)
+            {
+                reject = TLV_UNDERFLOW;
+                break;
+            }
+
+            final int type = buffer.getByte(progress) & 0xff;
+            final int length = buffer.getShort(progress + 1, BIG_ENDIAN) & 0xffff;
+            final int valueOffset = progress + TLV_HEADER_SIZE;
+            final int valueLimit = valueOffset + length;
+
+            if (valueLimit > limit)
+            {
+                reject = TLV_UNDERFLOW;
+                break;
+            }
+
+            switch (type)
+            {
+            case TYPE_ALPN:
+                decodeString8Info(type, valueOffset, length, infos);
+                break;
+            case TYPE_AUTHORITY:
+            case TYPE_UNIQUE_ID:
+            case TYPE_NETNS:
+                decodeInfo(type, valueOffset, length, infos);
+                break;
+            case TYPE_CRC32C:
+                decodeCrc32c(valueOffset, length);
+                break;
+            case TYPE_SSL:
+                decodeSsl(buffer, valueOffset, valueLimit, infos);
+                break;
+            default:
+                break;
+            }
+
+            progress = valueLimit;
+        }
+    }
+
+    private void decodeCrc32c(
+        int valueOffset,
+        int length)
+    {
+        if (length < CRC32C_SIZE)
+        {
+            reject = CRC32C_UNDERFLOW;
+        }
+        else if (length > CRC32C_SIZE)
+        {
+            reject = CRC32C_OVERFLOW;
+        }
+        else if (!checksum.verify(buffer, headerOffset, tlvsLimit - headerOffset, valueOffset))
+        {
+            reject = CRC32C_MISMATCH;
+        }
+    }
+
+    private void decodeSsl(
+        DirectBuffer buffer,
+        int offset,
+        int limit,
+        Array32FW.Builder<ProxyInfoFW.Builder, ProxyInfoFW> infos)
+    {
+        int progress = offset + SSL_HEADER_SIZE;
+
+        if (progress > limit)
+        {
+            reject = SSL_UNDERFLOW;
+        }
+        else
+        {
+            decodeInfo(TYPE_SSL, offset, SSL_HEADER_SIZE, infos);
+        }
+
+        while (reject == null && progress < limit)
+        {
+            if (limit - progress < TLV_HEADER_SIZE)
+            {
+                reject = SSL_UNDERFLOW;
+                break;
+            }
+
+            final int type = buffer.getByte(progress) & 0xff;
+            final int length = buffer.getShort(progress + 1, BIG_ENDIAN) & 0xffff;
+            final int valueOffset = progress + TLV_HEADER_SIZE;
+            final int valueLimit = valueOffset + length;
+
+            if (valueLimit > limit)
+            {
+                reject = SSL_UNDERFLOW;
+                break;
+            }
+
+            switch (type)
+            {
+            case TYPE_SSL_VERSION:
+            case TYPE_SSL_CIPHER:
+            case TYPE_SSL_SIG_ALG:
+            case TYPE_SSL_KEY_ALG:
+                decodeString8Info(type, valueOffset, length, infos);
+                break;
+            case TYPE_SSL_CN:
+                decodeInfo(type, valueOffset, length, infos);
+                break;
+            default:
+                break;
+            }
+
+            progress = valueLimit;
+        }
+    }
+
+    private void decodeString8Info(
+        int type,
+        int valueOffset,
+        int valueLength,
+        Array32FW.Builder<ProxyInfoFW.Builder, ProxyInfoFW> infos)
+    {
+        if (valueLength > STRING8_MAX_LENGTH)
+        {
+            reject = TLV_OVERFLOW;
+        }
+        else
+        {
+            decodeInfo(type, valueOffset, valueLength, infos);
+        }
+    }
+
+    private void decodeInfo(
+        int type,
+        int valueOffset,
+        int valueLength,
+        Array32FW.Builder<ProxyInfoFW.Builder, ProxyInfoFW> infos)
+    {
+        this.type = type;
+        this.valueOffset = valueOffset;
+        this.valueLength = valueLength;
+
+        infos.item(setInfo);
+    }
+
+    private void setAddress(
+        ProxyAddressFW.Builder address)
+    {
+        switch (family)
+        {
+        case FAMILY_INET:
+            address.inet4(setInet4);
+            break;
+        case FAMILY_INET6:
+            address.inet6(setInet6);
+            break;
+        case FAMILY_UNIX:
+            address.unix(setUnix);
+            break;
+        default:
+            address.none(setNone);
+            break;
+        }
+    }
+
+    private void setInet4(
+        ProxyAddressInet4FW.Builder inet4)
+    {
+        inet4.protocol(setProtocol)
+             .source(buffer, addressOffset, 4)
+             .destination(buffer, addressOffset + 4, 4)
+             .sourcePort(buffer.getShort(addressOffset + 8, BIG_ENDIAN) & 0xffff)
+             .destinationPort(buffer.getShort(addressOffset + 10, BIG_ENDIAN) & 0xffff);
+    }
+
+    private void setInet6(
+        ProxyAddressInet6FW.Builder inet6)
+    {
+        inet6.protocol(setProtocol)
+             .source(buffer, addressOffset, 16)
+             .destination(buffer, addressOffset + 16, 16)
+             .sourcePort(buffer.getShort(addressOffset + 32, BIG_ENDIAN) & 0xffff)
+             .destinationPort(buffer.getShort(addressOffset + 34, BIG_ENDIAN) & 0xffff);
+    }
+
+    private void setUnix(
+        ProxyAddressUnixFW.Builder unix)
+    {
+        unix.protocol(setProtocol)
+            .source(buffer, addressOffset, 108)
+            .destination(buffer, addressOffset + 108, 108);
+    }
+
+    private void setNone(
+        ProxyAddressNoneFW.Builder none)
+    {
+    }
+
+    private void setProtocol(
+        ProxyAddressProtocolFW.Builder protocol)
+    {
+        protocol.set(this.protocol);
+    }
+
+    private void setInfo(
+        ProxyInfoFW.Builder info)
+    {
+        switch (type)
+        {
+        case TYPE_ALPN:
+            info.alpn(string8());
+            break;
+        case TYPE_AUTHORITY:
+            info.authority(string16());
+            break;
+        case TYPE_UNIQUE_ID:
+            info.identity(setIdentity);
+            break;
+        case TYPE_NETNS:
+            info.namespace(string16());
+            break;
+        default:
+            info.secure(setSecureInfo);
+            break;
+        }
+    }
+
+    private void setIdentity(
+        ProxyIdentityFW.Builder identity)
+    {
+        identity.value(buffer, valueOffset, valueLength);
+    }
+
+    private void setSecureInfo(
+        ProxySecureInfoFW.Builder secure)
+    {
+        switch (type)
+        {
+        case TYPE_SSL:
+            secure.client(setSecureClient);
+            break;
+        case TYPE_SSL_VERSION:
+            secure.protocol(string8());
+            break;
+        case TYPE_SSL_CN:
+            secure.name(string16());
+            break;
+        case TYPE_SSL_CIPHER:
+            secure.cipher(string8());
+            break;
+        case TYPE_SSL_SIG_ALG:
+            secure.signature(string8());
+            break;
+        default:
+            secure.key(string8());
+            break;
+        }
+    }
+
+    private void setSecureClient(
+        ProxySecureClientFW.Builder client)
+    {
+        client.flags(buffer.getByte(valueOffset) & 0xff)
+              .verify(buffer.getInt(valueOffset + 1, BIG_ENDIAN));
+    }
+
+    private String8FW string8()
+    {
+        return string8RW.wrap(stringBuffer, 0, stringBuffer.capacity())
+                        .set(buffer, valueOffset, valueLength)
+                        .build();
+    }
+
+    private String16FW string16()
+    {
+        return string16RW.wrap(stringBuffer, 0, stringBuffer.capacity())
+                         .set(buffer, valueOffset, valueLength)
+                         .build();
+    }
+
+    private int addressSize(
+        int family,
+        int protocol)
+    {
+        int addressSize = -1;
+
+        switch (protocol)
+        {
+        case PROTOCOL_UNSPEC:
+            addressSize = family == FAMILY_UNSPEC ? 0 : -1;
+            break;
+        case PROTOCOL_STREAM:
+        case PROTOCOL_DGRAM:
+            this.protocol = protocol == PROTOCOL_STREAM ? STREAM : DATAGRAM;
+            addressSize = addressSize(family);
+            break;
+        default:
+            break;
+        }
+
+        return addressSize;
+    }
+
+    private static int addressSize(
+        int family)
+    {
+        switch (family)
+        {
+        case FAMILY_INET:
+            return ADDRESS_SIZE_INET;
+        case FAMILY_INET6:
+            return ADDRESS_SIZE_INET6;
+        case FAMILY_UNIX:
+            return ADDRESS_SIZE_UNIX;
+        default:
+            return -1;
+        }
+    }
+
+    private static boolean matchSignature(
+        DirectBuffer buffer,
+        int offset,
+        int available)
+    {
+        boolean matches;
+
+        if (available >= SIGNATURE_SIZE)
+        {
+            matches = buffer.getLong(offset) == SIGNATURE_PREFIX &&
+                      buffer.getInt(offset + Long.BYTES) == SIGNATURE_SUFFIX;
+        }
+        else
+        {
+            matches = true;
+            for (int index = 0; matches && index < available; index++)
+            {
+                matches = buffer.getByte(offset + index) == SIGNATURE.getByte(index);
+            }
+        }
+
+        return matches;
+    }
+
+    private int reject(
+        ProxyV2Reject reject)
+    {
+        this.reject = reject;
+        return DECODE_REJECTED;
+    }
+}
@@ -0,0 +1,403 @@
+/**
+ * Copyright 2016-2021 The Reaktivity Project
+ *
+ * The Reaktivity Project licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package org.reaktivity.specification.nukleus.proxy.internal;
+
+import static java.nio.ByteOrder.BIG_ENDIAN;
+import static org.reaktivity.specification.nukleus.proxy.internal.ProxyV2Decoder.COMMAND_LOCAL;
+import static org.reaktivity.specification.nukleus.proxy.internal.ProxyV2Decoder.COMMAND_PROXY;
+import static org.reaktivity.specification.nukleus.proxy.internal.ProxyV2Decoder.CRC32C_SIZE;
+import static org.reaktivity.specification.nukleus.proxy.internal.ProxyV2Decoder.FAMILY_INET;
+import static org.reaktivity.specification.nukleus.proxy.internal.ProxyV2Decoder.FAMILY_INET6;
+import static org.reaktivity.specification.nukleus.proxy.internal.ProxyV2Decoder.FAMILY_UNIX;
+import static org.reaktivity.specification.nukleus.proxy.internal.ProxyV2Decoder.FAMILY_UNSPEC;
+import static org.reaktivity.specification.nukleus.proxy.internal.ProxyV2Decoder.HEADER_SIZE;
+import static org.reaktivity.specification.nukleus.proxy.internal.ProxyV2Decoder.PROTOCOL_DGRAM;
+import static org.reaktivity.specification.nukleus.proxy.internal.ProxyV2Decoder.PROTOCOL_STREAM;
+import static org.reaktivity.specification.nukleus.proxy.internal.ProxyV2Decoder.SIGNATURE;
+import static org.reaktivity.specification.nukleus.proxy.internal.ProxyV2Decoder.SIGNATURE_SIZE;
+import static org.reaktivity.specification.nukleus.proxy.internal.ProxyV2Decoder.SSL_HEADER_SIZE;
+import static org.reaktivity.specification.nukleus.proxy.internal.ProxyV2Decoder.TLV_HEADER_SIZE;
+import static org.reaktivity.specification.nukleus.proxy.internal.ProxyV2Decoder.TYPE_ALPN;
+import static org.reaktivity.specification.nukleus.proxy.internal.ProxyV2Decoder.TYPE_AUTHORITY;
+import static org.reaktivity.specification.nukleus.proxy.internal.ProxyV2Decoder.TYPE_CRC32C;
+import static org.reaktivity.specification.nukleus.proxy.internal.ProxyV2Decoder.TYPE_NETNS;
+import static org.reaktivity.specification.nukleus.proxy.internal.ProxyV2Decoder.TYPE_SSL;
+import static org.reaktivity.specification.nukleus.proxy.internal.ProxyV2Decoder.TYPE_SSL_CIPHER;
+import static org.reaktivity.specification.nukleus.proxy.internal.ProxyV2Decoder.TYPE_SSL_CN;
+import static org.reaktivity.specification.nukleus.proxy.internal.ProxyV2Decoder.TYPE_SSL_KEY_ALG;
+import static org.reaktivity.specification.nukleus.proxy.internal.ProxyV2Decoder.TYPE_SSL_SIG_ALG;
+import static org.reaktivity.specification.nukleus.proxy.internal.ProxyV2Decoder.TYPE_SSL_VERSION;
+import static org.reaktivity.specification.nukleus.proxy.internal.ProxyV2Decoder.TYPE_UNIQUE_ID;
+import static org.reaktivity.specification.nukleus.proxy.internal.ProxyV2Decoder.VERSION_2;
+import static org.reaktivity.specification.nukleus.proxy.internal.types.ProxyAddressProtocol.STREAM;
+import static org.reaktivity.specification.nukleus.proxy.internal.types.ProxyInfoType.SECURE;
+
+import java.util.function.Consumer;
+
+import org.agrona.DirectBuffer;
+import org.agrona.MutableDirectBuffer;
+import org.reaktivity.specification.nukleus.proxy.internal.types.Array32FW;
+import org.reaktivity.specification.nukleus.proxy.internal.types.OctetsFW;
+import org.reaktivity.specification.nukleus.proxy.internal.types.ProxyAddressFW;
+import org.reaktivity.specification.nukleus.proxy.internal.types.ProxyAddressInet4FW;
+import org.reaktivity.specification.nukleus.proxy.internal.types.ProxyAddressInet6FW;
+import org.reaktivity.specification.nukleus.proxy.internal.types.ProxyAddressProtocolFW;
+import org.reaktivity.specification.nukleus.proxy.internal.types.ProxyAddressUnixFW;
+import org.reaktivity.specification.nukleus.proxy.internal.types.ProxyIdentityFW;
+import org.reaktivity.specification.nukleus.proxy.internal.types.ProxyInfoFW;
+import org.reaktivity.specification.nukleus.proxy.internal.types.ProxySecureClientFW;
+import org.reaktivity.specification.nukleus.proxy.internal.types.ProxySecureInfoFW;
+import org.reaktivity.specification.nukleus.proxy.internal.types.StringFW;
+import org.reaktivity.specification.nukleus.proxy.internal.types.stream.ProxyBeginExFW;
+
+public final class ProxyV2Encoder
+{
+    public static final int ENCODE_REJECTED = -1;
+
+    static final int SSL_CLIENT_SSL = 0x01;
+    static final int SSL_CLIENT_CERT = 0x06;
+    static final int SSL_VERIFIED = 0;
+    static final int SSL_NOT_VERIFIED = -1;
+    static final int UNIX_PATH_SIZE = 108;
+
+    private static final int HEADER_LENGTH_MAX = 0xffff;
+
+    private final ProxyV2Checksum checksum = new ProxyV2Checksum();
+    private final Consumer<ProxyInfoFW> scanInfo = this::scanInfo;
+    private final Consumer<ProxyInfoFW> encodeInfo = this::encodeInfo;
+    private final Consumer<ProxyInfoFW> encodeSecureInfo = this::encodeSecureInfo;
+
+    private boolean crc32cEnabled;
+
+    private MutableDirectBuffer buffer;
+    private int progress;
+    private int maxLimit;
+    private boolean secure;
+    private boolean clientCert;
+    private boolean client;
+    private int clientFlags;
+    private int clientVerify;
+
+    public ProxyV2Encoder crc32c(
+        boolean enabled)
+    {
+        this.crc32cEnabled = enabled;
+        return this;
+    }
+
+    boolean crc32c()
+    {
+        return crc32cEnabled;
+    }
+
+    public int encode(
+        ProxyBeginExFW beginEx,
+        MutableDirectBuffer buffer,
+        int offset,
+        int maxLimit)
+    {
+        final ProxyAddressFW address = beginEx.address();
+        final Array32FW<ProxyInfoFW> infos = beginEx.infos();
+
+        this.buffer = buffer;
+        this.maxLimit = maxLimit;
+        this.progress = offset + HEADER_SIZE;
+        this.secure = false;
+        this.clientCert = false;
+        this.client = false;
+
+        int command = COMMAND_PROXY;
+        int familyAndProtocol = FAMILY_UNSPEC;
+
+        if (progress <= maxLimit)
+        {
+            switch (address.kind())
+            {
+            case INET4:
+                familyAndProtocol = FAMILY_INET | protocol(address.inet4().protocol());
+                encodeInet4(address.inet4());
+                break;
+            case INET6:
+                familyAndProtocol = FAMILY_INET6 | protocol(address.inet6().protocol());
+                encodeInet6(address.inet6());
+                break;
+            case UNIX:
+                familyAndProtocol = FAMILY_UNIX | protocol(address.unix().protocol());
+                encodeUnix(address.unix());
+                break;
+            case NONE:
+                command = infos.isEmpty() ? COMMAND_LOCAL : COMMAND_PROXY;
+                break;
+            default:
+                progress = Integer.MAX_VALUE;
+                break;
+            }
+        }
+
+        if (command == COMMAND_PROXY)
+        {
+            encodeTlvs(infos);
+        }
+
+        final int length = progress - offset - HEADER_SIZE;
+
+        if (progress > maxLimit || length > HEADER_LENGTH_MAX)
+        {
+            return ENCODE_REJECTED;
+        }
+
+        buffer.putBytes(offset, SIGNATURE, 0, SIGNATURE_SIZE);
+        buffer.putByte(offset + SIGNATURE_SIZE, (byte) (VERSION_2 | command));
+        buffer.putByte(offset + SIGNATURE_SIZE + 1, (byte) familyAndProtocol);
+        buffer.putShort(offset + SIGNATURE_SIZE + 2, (short) length, BIG_ENDIAN);
+
+        if (crc32cEnabled && command == COMMAND_PROXY)
+        {
+            final int checksumOffset = progress - CRC32C_SIZE;
+            buffer.putInt(checksumOffset, checksum.checksum(buffer, offset, progress - offset, checksumOffset), BIG_ENDIAN);
+        }
+
+        return progress - offset;
+    }
+
+    private void encodeTlvs(
+        Array32FW<ProxyInfoFW> infos)
+    {
+        infos.forEach(scanInfo);
+        infos.forEach(encodeInfo);
+
+        if (secure && reserve(TLV_HEADER_SIZE + SSL_HEADER_SIZE))
+        {
+            final int sslOffset = progress - SSL_HEADER_SIZE - TLV_HEADER_SIZE;
+            final int flags = client ? clientFlags : clientCert ? SSL_CLIENT_SSL | SSL_CLIENT_CERT : SSL_CLIENT_SSL;
+            final int verify = client ? clientVerify : clientCert ? SSL_VERIFIED : SSL_NOT_VERIFIED;
+
+            buffer.putByte(sslOffset + TLV_HEADER_SIZE, (byte) flags);
+            buffer.putInt(sslOffset + TLV_HEADER_SIZE + 1, verify, BIG_ENDIAN);
+
+            infos.forEach(encodeSecureInfo);
+
+            encodeTlvHeader(sslOffset, TYPE_SSL, progress - sslOffset - TLV_HEADER_SIZE);
+        }
+
+        if (crc32cEnabled && reserve(TLV_HEADER_SIZE + CRC32C_SIZE))
+        {
+            final int crc32cOffset = progress - CRC32C_SIZE - TLV_HEADER_SIZE;
+
+            encodeTlvHeader(crc32cOffset, TYPE_CRC32C, CRC32C_SIZE);
+            buffer.putInt(crc32cOffset + TLV_HEADER_SIZE, 0);
+        }
+    }
+
+    private void encodeInet4(
+        ProxyAddressInet4FW inet4)
+    {
+        if (reserve(12))
+        {
+            final int addressOffset = progress - 12;
+            encodeOctets(addressOffset, inet4.source());
+            encodeOctets(addressOffset + 4, inet4.destination());
+            buffer.putShort(addressOffset + 8, (short) inet4.sourcePort(), BIG_ENDIAN);
+            buffer.putShort(addressOffset + 10, (short) inet4.destinationPort(), BIG_ENDIAN);
+        }
+    }
+
+    private void encodeInet6(
+        ProxyAddressInet6FW inet6)
+    {
+        if (reserve(36))
+        {
+            final int addressOffset = progress - 36;
+            encodeOctets(addressOffset, inet6.source());
+            encodeOctets(addressOffset + 16, inet6.destination());
+            buffer.putShort(addressOffset + 32, (short) inet6.sourcePort(), BIG_ENDIAN);
+            buffer.putShort(addressOffset + 34, (short) inet6.destinationPort(), BIG_ENDIAN);
+        }
+    }
+
+    private void encodeUnix(
+        ProxyAddressUnixFW unix)
+    {
+        if (!reserve(UNIX_PATH_SIZE << 1) ||
+            !encodeUnixPath(buffer, progress - (UNIX_PATH_SIZE << 1), unix.source()) ||
+            !encodeUnixPath(buffer, progress - UNIX_PATH_SIZE, unix.destination()))
+        {
+            progress = Integer.MAX_VALUE;
+        }
+    }
+
+    private void scanInfo(
+        ProxyInfoFW info)
+    {
+        if (info.kind() == SECURE)
+        {
+            secure = true;
+
+            final ProxySecureInfoFW secureInfo = info.secure();
+
+            switch (secureInfo.kind())
+            {
+            case CLIENT:
+                final ProxySecureClientFW secureClient = secureInfo.client();
+                client = true;
+                clientFlags = secureClient.flags();
+                clientVerify = secureClient.verify();
+                break;
+            case NAME:
+            case KEY:
+                clientCert = true;
+                break;
+            default:
+                break;
+            }
+        }
+    }
+
+    private void encodeInfo(
+        ProxyInfoFW info)
+    {
+        switch (info.kind())
+        {
+        case ALPN:
+            encodeTlv(TYPE_ALPN, info.alpn());
+            break;
+        case AUTHORITY:
+            encodeTlv(TYPE_AUTHORITY, info.authority());
+            break;
+        case IDENTITY:
+            encodeTlv(TYPE_UNIQUE_ID, info.identity());
+            break;
+        case NAMESPACE:
+            encodeTlv(TYPE_NETNS, info.namespace());
+            break;
+        default:
+            break;
+        }
+    }
+
+    private void encodeSecureInfo(
+        ProxyInfoFW info)
+    {
+        if (info.kind() == SECURE)
+        {
+            final ProxySecureInfoFW secureInfo = info.secure();
+
+            switch (secureInfo.kind())
+            {
+            case CLIENT:
+                break;
+            case PROTOCOL:
+                encodeTlv(TYPE_SSL_VERSION, secureInfo.protocol());
+                break;
+            case NAME:
+                encodeTlv(TYPE_SSL_CN, secureInfo.name());
+                break;
+            case CIPHER:
+                encodeTlv(TYPE_SSL_CIPHER, secureInfo.cipher());
+                break;
+            case SIGNATURE:
+                encodeTlv(TYPE_SSL_SIG_ALG, secureInfo.signature());
+                break;
+            default:
+                encodeTlv(TYPE_SSL_KEY_ALG, secureInfo.key());
+                break;
+            }
+        }
+    }
+
+    private void encodeTlv(
+        int type,
+        StringFW value)
+    {
+        final int length = value.length();
+        final int valueOffset = value.offset() + value.fieldSizeLength();
+
+        encodeTlv(type, value.buffer(), valueOffset, length);
+    }
+
+    private void encodeTlv(
+        int type,
+        ProxyIdentityFW identity)
+    {
+        final OctetsFW value = identity.value();
+
+        encodeTlv(type, value.buffer(), value.offset(), value.sizeof());
+    }
+
+    private void encodeTlv(
+        int type,
+        DirectBuffer value,
+        int offset,
+        int length)
+    {
+        if (reserve(TLV_HEADER_SIZE + length))
+        {
+            final int tlvOffset = progress - length - TLV_HEADER_SIZE;
+
+            encodeTlvHeader(tlvOffset, type, length);
+            buffer.putBytes(tlvOffset + TLV_HEADER_SIZE, value, offset, length);
+        }
+    }
+
+    private void encodeTlvHeader(
+        int offset,
+        int type,
+        int length)
+    {
+        buffer.putByte(offset, (byte) type);
+        buffer.putShort(offset + 1, (short) length, BIG_ENDIAN);
+    }
+
+    private void encodeOctets(
+        int offset,
+        OctetsFW octets)
+    {
+        buffer.putBytes(offset, octets.buffer(), octets.offset(), octets.sizeof());
+    }
+
+    static boolean encodeUnixPath(
+        MutableDirectBuffer buffer,
+        int offset,
+        OctetsFW path)
+    {
+        final int length = path.sizeof();
+        final boolean encodable = length <= UNIX_PATH_SIZE;
+
+        if (encodable)
+        {
+            buffer.putBytes(offset, path.buffer(), path.offset(), length);
+            buffer.setMemory(offset + length, UNIX_PATH_SIZE - length, (byte) 0);
+        }
+
+        return encodable;
+    }
+
+    private boolean reserve(
+        int length)
+    {
+        final boolean reserved = length <= maxLimit - progress;
+
+        progress = reserved ? progress + length : Integer.MAX_VALUE;
+
+        return reserved;
+    }
+
+    static int protocol(
+        ProxyAddressProtocolFW protocol)
+    {
+        return protocol.get() == STREAM ? PROTOCOL_STREAM : PROTOCOL_DGRAM;
+    }
+}
@@ -0,0 +1,226 @@
+/**
+ * Copyright 2016-2021 The Reaktivity Project
+ *
+ * The Reaktivity Project licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package org.reaktivity.specification.nukleus.proxy.internal;
+
+import static java.nio.ByteOrder.BIG_ENDIAN;
+import static org.reaktivity.specification.nukleus.proxy.internal.ProxyV2Decoder.CRC32C_SIZE;
+import static org.reaktivity.specification.nukleus.proxy.internal.ProxyV2Decoder.HEADER_SIZE;
+import static org.reaktivity.specification.nukleus.proxy.internal.ProxyV2Decoder.SIGNATURE_SIZE;
+import static org.reaktivity.specification.nukleus.proxy.internal.ProxyV2Encoder.ENCODE_REJECTED;
+import static org.reaktivity.specification.nukleus.proxy.internal.ProxyV2Encoder.UNIX_PATH_SIZE;
+import static org.reaktivity.specification.nukleus.proxy.internal.ProxyV2Encoder.encodeUnixPath;
+import static org.reaktivity.specification.nukleus.proxy.internal.ProxyV2Encoder.protocol;
+
+import org.agrona.DirectBuffer;
+import org.agrona.ExpandableArrayBuffer;
+import org.agrona.MutableDirectBuffer;
+import org.reaktivity.specification.nukleus.proxy.internal.types.Array32FW;
+import org.reaktivity.specification.nukleus.proxy.internal.types.OctetsFW;
+import org.reaktivity.specification.nukleus.proxy.internal.types.ProxyAddressFW;
+import org.reaktivity.specification.nukleus.proxy.internal.types.ProxyAddressFamily;
+import org.reaktivity.specification.nukleus.proxy.internal.types.ProxyAddressInet4FW;
+import org.reaktivity.specification.nukleus.proxy.internal.types.ProxyAddressInet6FW;
+import org.reaktivity.specification.nukleus.proxy.internal.types.ProxyAddressUnixFW;
+import org.reaktivity.specification.nukleus.proxy.internal.types.ProxyInfoFW;
+import org.reaktivity.specification.nukleus.proxy.internal.types.stream.ProxyBeginExFW;
+
+/**
+ * Caches the PROXY v2 header encoded for the first connection on a client route, then emits the header for
+ * each later connection on that route by copying the cached bytes and patching only the source address,
+ * source port and, when enabled, the {@code PP2_TYPE_CRC32C} checksum.
+ * <p>
+ * Connections on one client route may still differ in protocol, destination and infos, so each connection
+ * is first compared with the prepared connection on every field that is not patched, and is rejected with
+ * {@link ProxyV2Encoder#ENCODE_REJECTED} on any difference so the caller can fall back to the encoder.
+ */
+public final class ProxyV2Template
+{
+    private static final int OFFSET_INET4_SOURCE_PORT = 8;
+    private static final int OFFSET_INET6_SOURCE_PORT = 32;
+    private static final int OFFSET_INET4_DESTINATION = 4;
+    private static final int OFFSET_INET4_DESTINATION_PORT = 10;
+    private static final int OFFSET_INET6_DESTINATION = 16;
+    private static final int OFFSET_INET6_DESTINATION_PORT = 34;
+    private static final int OFFSET_PROTOCOL = SIGNATURE_SIZE + 1;
+
+    private final ProxyV2Encoder encoder;
+    private final MutableDirectBuffer template;
+    private final ProxyV2Checksum checksum = new ProxyV2Checksum();
+    private final MutableDirectBuffer infos = new ExpandableArrayBuffer();
+
+    private ProxyAddressFamily family;
+    private boolean crc32c;
+    private int infosSize;
+    private int length = ENCODE_REJECTED;
+
+    public ProxyV2Template(
+        ProxyV2Encoder encoder,
+        MutableDirectBuffer template)
+    {
+        this.encoder = encoder;
+        this.template = template;
+    }
+
+    public int prepare(
+        ProxyBeginExFW beginEx)
+    {
+        final Array32FW<ProxyInfoFW> infos = beginEx.infos();
+
+        family = beginEx.address().kind();
+        crc32c = encoder.crc32c();
+        infosSize = infos.sizeof();
+        this.infos.putBytes(0, infos.buffer(), infos.offset(), infosSize);
+        length = encoder.encode(beginEx, template, 0, template.capacity());
+        return length;
+    }
+
+    public int encode(
+        ProxyBeginExFW beginEx,
+        MutableDirectBuffer buffer,
+        int offset,
+        int maxLimit)
+    {
+        final ProxyAddressFW address = beginEx.address();
+
+        if (length == ENCODE_REJECTED || maxLimit - offset < length || !matches(beginEx))
+        {
+            return ENCODE_REJECTED;
+        }
+
+        buffer.putBytes(offset, template, 0, length);
+
+        final int addressOffset = offset + HEADER_SIZE;
+
+        switch (family)
+        {
+        case INET4:
+            final ProxyAddressInet4FW inet4 = address.inet4();
+            encodeOctets(buffer, addressOffset, inet4.source());
+            buffer.putShort(addressOffset + OFFSET_INET4_SOURCE_PORT, (short) inet4.sourcePort(), BIG_ENDIAN);
+            break;
+        case INET6:
+            final ProxyAddressInet6FW inet6 = address.inet6();
+            encodeOctets(buffer, addressOffset, inet6.source());
+            buffer.putShort(addressOffset + OFFSET_INET6_SOURCE_PORT, (short) inet6.sourcePort(), BIG_ENDIAN);
+            break;
+        case UNIX:
+            encodeUnixPath(buffer, addressOffset, address.unix().source());
+            break;
+        default:
+            break;
+        }
+
+        if (crc32c && length > HEADER_SIZE)
+        {
+            final int checksumOffset = offset + length - CRC32C_SIZE;
+            buffer.putInt(checksumOffset, checksum.checksum(buffer, offset, length, checksumOffset), BIG_ENDIAN);
+        }
+
+        return length;
+    }
+
+    private boolean matches(
+        ProxyBeginExFW beginEx)
+    {
+        final ProxyAddressFW address = beginEx.address();
+        final Array32FW<ProxyInfoFW> infos = beginEx.infos();
+
+        return address.kind() == family &&
+               matchesAddress(address) &&
+               infos.sizeof() == infosSize &&
+               equals(infos.buffer(), infos.offset(), this.infos, 0, infosSize);
+    }
+
+    private boolean matchesAddress(
+        ProxyAddressFW address)
+    {
+        final int protocol = template.getByte(OFFSET_PROTOCOL) & 0x0f;
+
+        boolean matches;
+
+        switch (family)
+        {
+        case INET4:
+            final ProxyAddressInet4FW inet4 = address.inet4();
+            matches = protocol(inet4.protocol()) == protocol &&
+                      matchesOctets(HEADER_SIZE + OFFSET_INET4_DESTINATION, inet4.destination()) &&
+                      matchesPort(HEADER_SIZE + OFFSET_INET4_DESTINATION_PORT, inet4.destinationPort());
+            break;
+        case INET6:
+            final ProxyAddressInet6FW inet6 = address.inet6();
+            matches = protocol(inet6.protocol()) == protocol &&
+                      matchesOctets(HEADER_SIZE + OFFSET_INET6_DESTINATION, inet6.destination()) &&
+                      matchesPort(HEADER_SIZE + OFFSET_INET6_DESTINATION_PORT, inet6.destinationPort());
+            break;
+        case UNIX:
+            final ProxyAddressUnixFW unix = address.unix();
+            matches = protocol(unix.protocol()) == protocol &&
+                      unix.source().sizeof() <= UNIX_PATH_SIZE &&
+                      matchesOctets(HEADER_SIZE + UNIX_PATH_SIZE, unix.destination());
+            break;
+        default:
+            matches = true;
+            break;
+        }
+
+        return matches;
+    }
+
+    private boolean matchesOctets(
+        int offset,
+        OctetsFW octets)
+    {
+        return equals(octets.buffer(), octets.offset(), template, offset, octets.sizeof());
+    }
+
+    private boolean matchesPort(
+        int offset,
+        int port)
+    {
+        return (template.getShort(offset, BIG_ENDIAN) & 0xffff) == port;
+    }
+
+    private static boolean equals(
+        DirectBuffer buffer,
+        int offset,
+        DirectBuffer other,
+        int otherOffset,
+        int length)
+    {
+        boolean equal = true;
+        int index = 0;
+
+        for (; equal && index <= length - Long.BYTES; index += Long.BYTES)
+        {
+            equal = buffer.getLong(offset + index) == other.getLong(otherOffset + index);
+        }
+
+        for (; equal && index < length; index++)
+        {
+            equal = buffer.getByte(offset + index) == other.getByte(otherOffset + index);
+        }
+
+        return equal;
+    }
+
+    private static void encodeOctets(
+        MutableDirectBuffer buffer,
+        int offset,
+        OctetsFW octets)
+    {
+        buffer.putBytes(offset, octets.buffer(), octets.offset(), octets.sizeof());
+    }
+}
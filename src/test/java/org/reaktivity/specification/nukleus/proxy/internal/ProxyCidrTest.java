@@ -0,0 +1,138 @@
+/**
+ * Copyright 2016-2021 The Reaktivity Project
+ *
+ * The Reaktivity Project licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package org.reaktivity.specification.nukleus.proxy.internal;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.reaktivity.specification.nukleus.proxy.internal.types.ProxyAddressFamily.INET4;
+import static org.reaktivity.specification.nukleus.proxy.internal.types.ProxyAddressFamily.INET6;
+
+import java.net.InetAddress;
+
+import org.agrona.concurrent.UnsafeBuffer;
+import org.junit.Test;
+
+public class ProxyCidrTest
+{
+    @Test
+    public void shouldMatchInet4Prefix() throws Exception
+    {
+        ProxyCidr cidr = ProxyCidr.of("192.168.0.0/16");
+
+        assertEquals(INET4, cidr.family());
+        assertEquals(16, cidr.length());
+        assertTrue(matches(cidr, "192.168.0.1"));
+        assertTrue(matches(cidr, "192.168.255.254"));
+        assertFalse(matches(cidr, "192.169.0.1"));
+        assertFalse(matches(cidr, "10.168.0.1"));
+    }
+
+    @Test
+    public void shouldMatchInet4PrefixWithinOctet() throws Exception
+    {
+        ProxyCidr cidr = ProxyCidr.of("192.168.0.0/20");
+
+        assertTrue(matches(cidr, "192.168.15.1"));
+        assertFalse(matches(cidr, "192.168.16.1"));
+        assertFalse(matches(cidr, "192.169.15.1"));
+    }
+
+    @Test
+    public void shouldMatchInet4Host() throws Exception
+    {
+        ProxyCidr cidr = ProxyCidr.of("192.168.0.1");
+
+        assertEquals(32, cidr.length());
+        assertTrue(matches(cidr, "192.168.0.1"));
+        assertFalse(matches(cidr, "192.168.0.2"));
+    }
+
+    @Test
+    public void shouldMatchAnyInet4() throws Exception
+    {
+        ProxyCidr cidr = ProxyCidr.of("0.0.0.0/0");
+
+        assertTrue(matches(cidr, "192.168.0.1"));
+        assertFalse(matches(cidr, "fd12:3456:789a:1::1"));
+    }
+
+    @Test
+    public void shouldMatchInet6Prefix() throws Exception
+    {
+        ProxyCidr cidr = ProxyCidr.of("fd12:3456:789a::/48");
+
+        assertEquals(INET6, cidr.family());
+        assertEquals(48, cidr.length());
+        assertTrue(matches(cidr, "fd12:3456:789a:1::1"));
+        assertFalse(matches(cidr, "fd12:3456:789b:1::1"));
+        assertFalse(matches(cidr, "192.168.0.1"));
+    }
+
+    @Test
+    public void shouldReportPrefixBits() throws Exception
+    {
+        ProxyCidr cidr = ProxyCidr.of("160.0.0.0/3");
+
+        assertEquals(1, cidr.bit(0));
+        assertEquals(0, cidr.bit(1));
+        assertEquals(1, cidr.bit(2));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldRejectPrefixLengthOverflow() throws Exception
+    {
+        ProxyCidr.of("192.168.0.0/33");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldRejectNegativePrefixLength() throws Exception
+    {
+        ProxyCidr.of("fd12:3456:789a::/-1");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldRejectHostName() throws Exception
+    {
+        ProxyCidr.of("localhost/8");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldRejectEmptyHost() throws Exception
+    {
+        ProxyCidr.of("/8");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldRejectShortenedInet4Literal() throws Exception
+    {
+        ProxyCidr.of("10.1/16");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldRejectInvalidInet6Literal() throws Exception
+    {
+        ProxyCidr.of("fd12:::1/48");
+    }
+
+    private static boolean matches(
+        ProxyCidr cidr,
+        String address) throws Exception
+    {
+        byte[] bytes = InetAddress.getByName(address).getAddress();
+        return cidr.matches(new UnsafeBuffer(bytes), 0, bytes.length);
+    }
+}
@@ -0,0 +1,404 @@
+/**
+ * Copyright 2016-2021 The Reaktivity Project
+ *
+ * The Reaktivity Project licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package org.reaktivity.specification.nukleus.proxy.internal;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.reaktivity.specification.nukleus.proxy.internal.types.ProxyAddressFamily.INET4;
+
+import org.agrona.concurrent.UnsafeBuffer;
+import org.junit.Test;
+import org.reaktivity.specification.nukleus.proxy.internal.types.stream.ProxyBeginExFW;
+
+public class ProxyConditionTest
+{
+    @Test
+    public void shouldMatchAnyAddress() throws Exception
+    {
+        ProxyCondition condition = ProxyCondition.builder().build();
+
+        assertTrue(condition.matches(inet("stream", "example.com", 443)));
+        assertTrue(condition.matches(inet4("stream", "192.168.0.1", "192.168.0.254", 32768, 443)));
+        assertTrue(condition.matches(inet6("stream", "fd12:3456:789a:1::1", "fd12:3456:789a:1::fe", 32768, 443)));
+        assertTrue(condition.matches(unix("stream")));
+        assertTrue(condition.matches(none()));
+    }
+
+    @Test
+    public void shouldMatchFamily() throws Exception
+    {
+        ProxyCondition condition = ProxyCondition.builder()
+                                                 .family("inet4")
+                                                 .build();
+
+        assertTrue(condition.matches(inet4("stream", "192.168.0.1", "192.168.0.254", 32768, 443)));
+        assertFalse(condition.matches(inet6("stream", "fd12:3456:789a:1::1", "fd12:3456:789a:1::fe", 32768, 443)));
+        assertFalse(condition.matches(none()));
+    }
+
+    @Test
+    public void shouldMatchTransport() throws Exception
+    {
+        ProxyCondition condition = ProxyCondition.builder()
+                                                 .transport("stream")
+                                                 .build();
+
+        assertTrue(condition.matches(inet("stream", "example.com", 443)));
+        assertFalse(condition.matches(inet("datagram", "example.com", 443)));
+        assertTrue(condition.matches(inet4("stream", "192.168.0.1", "192.168.0.254", 32768, 443)));
+        assertFalse(condition.matches(inet4("datagram", "192.168.0.1", "192.168.0.254", 32768, 443)));
+        assertTrue(condition.matches(inet6("stream", "fd12:3456:789a:1::1", "fd12:3456:789a:1::fe", 32768, 443)));
+        assertFalse(condition.matches(inet6("datagram", "fd12:3456:789a:1::1", "fd12:3456:789a:1::fe", 32768, 443)));
+        assertTrue(condition.matches(unix("stream")));
+        assertFalse(condition.matches(unix("datagram")));
+        assertFalse(condition.matches(none()));
+    }
+
+    @Test
+    public void shouldMatchInet4Cidr() throws Exception
+    {
+        ProxyCondition condition = ProxyCondition.builder()
+                                                 .source("192.168.0.0/16")
+                                                 .destination("192.168.0.0/24")
+                                                 .build();
+
+        assertEquals(INET4, condition.family);
+        assertTrue(condition.matches(inet4("stream", "192.168.1.1", "192.168.0.254", 32768, 443)));
+        assertFalse(condition.matches(inet4("stream", "10.0.0.1", "192.168.0.254", 32768, 443)));
+        assertFalse(condition.matches(inet4("stream", "192.168.1.1", "192.168.1.254", 32768, 443)));
+        assertFalse(condition.matches(inet("stream", "example.com", 443)));
+    }
+
+    @Test
+    public void shouldMatchInet6Cidr() throws Exception
+    {
+        ProxyCondition condition = ProxyCondition.builder()
+                                                 .family("inet6")
+                                                 .source("fd12:3456:789a::/48")
+                                                 .destination("fd12:3456:789a:1::/64")
+                                                 .build();
+
+        assertTrue(condition.matches(inet6("stream", "fd12:3456:789a:2::1", "fd12:3456:789a:1::fe", 32768, 443)));
+        assertFalse(condition.matches(inet6("stream", "fd12:3456:789b:2::1", "fd12:3456:789a:1::fe", 32768, 443)));
+        assertFalse(condition.matches(inet6("stream", "fd12:3456:789a:2::1", "fd12:3456:789a:2::fe", 32768, 443)));
+    }
+
+    @Test
+    public void shouldMatchPortRanges() throws Exception
+    {
+        ProxyCondition condition = ProxyCondition.builder()
+                                                 .sourcePort("32768-65535")
+                                                 .destinationPort("443-8443")
+                                                 .build();
+
+        assertTrue(condition.matches(inet("stream", "example.com", 8443)));
+        assertTrue(condition.matches(inet4("stream", "192.168.0.1", "192.168.0.254", 32768, 443)));
+        assertTrue(condition.matches(inet6("stream", "fd12:3456:789a:1::1", "fd12:3456:789a:1::fe", 65535, 8443)));
+        assertFalse(condition.matches(inet4("stream", "192.168.0.1", "192.168.0.254", 32767, 443)));
+        assertFalse(condition.matches(inet4("stream", "192.168.0.1", "192.168.0.254", 32768, 442)));
+        assertFalse(condition.matches(inet4("stream", "192.168.0.1", "192.168.0.254", 32768, 8444)));
+        assertFalse(condition.matches(unix("stream")));
+        assertFalse(condition.matches(none()));
+        assertFalse(condition.hasExactDestinationPort());
+    }
+
+    @Test
+    public void shouldMatchExactPort() throws Exception
+    {
+        ProxyCondition condition = ProxyCondition.builder()
+                                                 .destinationPort("443")
+                                                 .build();
+
+        assertTrue(condition.hasExactDestinationPort());
+        assertTrue(condition.matches(inet4("stream", "192.168.0.1", "192.168.0.254", 32768, 443)));
+        assertFalse(condition.matches(inet4("stream", "192.168.0.1", "192.168.0.254", 32768, 444)));
+    }
+
+    @Test
+    public void shouldMatchSourcePortOnly() throws Exception
+    {
+        ProxyCondition condition = ProxyCondition.builder()
+                                                 .sourcePort("32768")
+                                                 .build();
+
+        assertTrue(condition.matches(inet4("stream", "192.168.0.1", "192.168.0.254", 32768, 443)));
+        assertFalse(condition.matches(inet4("stream", "192.168.0.1", "192.168.0.254", 32769, 443)));
+        assertFalse(condition.matches(none()));
+    }
+
+    @Test
+    public void shouldMatchAlpn() throws Exception
+    {
+        ProxyCondition condition = ProxyCondition.builder()
+                                                 .alpn("echo")
+                                                 .build();
+
+        assertTrue(condition.matches(beginEx(ProxyFunctions.beginEx()
+                                                           .typeId(0x01)
+                                                           .addressNone()
+                                                               .build()
+                                                           .info()
+                                                               .authority("example.com")
+                                                               .alpn("echo")
+                                                               .build()
+                                                           .build())));
+        assertFalse(condition.matches(beginEx(ProxyFunctions.beginEx()
+                                                            .typeId(0x01)
+                                                            .addressNone()
+                                                                .build()
+                                                            .info()
+                                                                .alpn("h2")
+                                                                .build()
+                                                            .build())));
+        assertFalse(condition.matches(none()));
+    }
+
+    @Test
+    public void shouldMatchAuthority() throws Exception
+    {
+        ProxyCondition condition = ProxyCondition.builder()
+                                                 .authority("example.com")
+                                                 .build();
+
+        assertTrue(condition.matches(beginEx(ProxyFunctions.beginEx()
+                                                           .typeId(0x01)
+                                                           .addressNone()
+                                                               .build()
+                                                           .info()
+                                                               .alpn("echo")
+                                                               .authority("example.com")
+                                                               .build()
+                                                           .build())));
+        assertFalse(condition.matches(beginEx(ProxyFunctions.beginEx()
+                                                            .typeId(0x01)
+                                                            .addressNone()
+                                                                .build()
+                                                            .info()
+                                                                .authority("www.example.com")
+                                                                .build()
+                                                            .build())));
+    }
+
+    @Test
+    public void shouldMatchWildcardAuthority() throws Exception
+    {
+        ProxyCondition condition = ProxyCondition.builder()
+                                                 .authority("*.example.com")
+                                                 .build();
+
+        assertTrue(condition.matches(authority("www.example.com")));
+        assertTrue(condition.matches(authority("api.eu.example.com")));
+        assertFalse(condition.matches(authority("example.com")));
+        assertFalse(condition.matches(none()));
+    }
+
+    @Test
+    public void shouldMatchSecureName() throws Exception
+    {
+        ProxyCondition condition = ProxyCondition.builder()
+                                                 .secureName("*.example.net")
+                                                 .build();
+
+        assertTrue(condition.matches(secureName("www.example.net")));
+        assertFalse(condition.matches(secureName("www.example.com")));
+        assertFalse(condition.matches(authority("www.example.net")));
+        assertFalse(condition.matches(beginEx(ProxyFunctions.beginEx()
+                                                            .typeId(0x01)
+                                                            .addressNone()
+                                                                .build()
+                                                            .info()
+                                                                .secure()
+                                                                    .protocol("TLSv1.3")
+                                                                    .build()
+                                                                .build()
+                                                            .build())));
+    }
+
+    @Test
+    public void shouldMatchSecureVersion() throws Exception
+    {
+        ProxyCondition condition = ProxyCondition.builder()
+                                                 .secureVersion("TLSv1.3")
+                                                 .build();
+
+        assertTrue(condition.matches(beginEx(ProxyFunctions.beginEx()
+                                                           .typeId(0x01)
+                                                           .addressNone()
+                                                               .build()
+                                                           .info()
+                                                               .alpn("echo")
+                                                               .secure()
+                                                                   .cipher("ECDHE-RSA-AES128-GCM-SHA256")
+                                                                   .protocol("TLSv1.3")
+                                                                   .build()
+                                                               .build()
+                                                           .build())));
+        assertFalse(condition.matches(beginEx(ProxyFunctions.beginEx()
+                                                            .typeId(0x01)
+                                                            .addressNone()
+                                                                .build()
+                                                            .info()
+                                                                .secure()
+                                                                    .protocol("TLSv1.2")
+                                                                    .build()
+                                                                .build()
+                                                            .build())));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldRejectFamilyMismatch() throws Exception
+    {
+        ProxyCondition.builder()
+                      .family("inet")
+                      .destination("192.168.0.0/24")
+                      .build();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldRejectCidrFamilyMismatch() throws Exception
+    {
+        ProxyCondition.builder()
+                      .source("fd12:3456:789a::/48")
+                      .destination("192.168.0.0/24")
+                      .build();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldRejectInvertedPortRange() throws Exception
+    {
+        ProxyCondition.builder()
+                      .destinationPort("8443-443");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldRejectPortOverflow() throws Exception
+    {
+        ProxyCondition.builder()
+                      .sourcePort("65536");
+    }
+
+    static ProxyBeginExFW inet(
+        String protocol,
+        String destination,
+        int destinationPort) throws Exception
+    {
+        return beginEx(ProxyFunctions.beginEx()
+                                     .typeId(0x01)
+                                     .addressInet()
+                                         .protocol(protocol)
+                                         .source("example.net")
+                                         .destination(destination)
+                                         .sourcePort(32768)
+                                         .destinationPort(destinationPort)
+                                         .build()
+                                     .build());
+    }
+
+    static ProxyBeginExFW inet4(
+        String protocol,
+        String source,
+        String destination,
+        int sourcePort,
+        int destinationPort) throws Exception
+    {
+        return beginEx(ProxyFunctions.beginEx()
+                                     .typeId(0x01)
+                                     .addressInet4()
+                                         .protocol(protocol)
+                                         .source(source)
+                                         .destination(destination)
+                                         .sourcePort(sourcePort)
+                                         .destinationPort(destinationPort)
+                                         .build()
+                                     .build());
+    }
+
+    static ProxyBeginExFW inet6(
+        String protocol,
+        String source,
+        String destination,
+        int sourcePort,
+        int destinationPort) throws Exception
+    {
+        return beginEx(ProxyFunctions.beginEx()
+                                     .typeId(0x01)
+                                     .addressInet6()
+                                         .protocol(protocol)
+                                         .source(source)
+                                         .destination(destination)
+                                         .sourcePort(sourcePort)
+                                         .destinationPort(destinationPort)
+                                         .build()
+                                     .build());
+    }
+
+    static ProxyBeginExFW unix(
+        String protocol) throws Exception
+    {
+        return beginEx(ProxyFunctions.beginEx()
+                                     .typeId(0x01)
+                                     .addressUnix()
+                                         .protocol(protocol)
+                                         .source("source")
+                                         .destination("destination")
+                                         .build()
+                                     .build());
+    }
+
+    static ProxyBeginExFW none()
+    {
+        return beginEx(ProxyFunctions.beginEx()
+                                     .typeId(0x01)
+                                     .addressNone()
+                                         .build()
+                                     .build());
+    }
+
+    static ProxyBeginExFW authority(
+        String authority)
+    {
+        return beginEx(ProxyFunctions.beginEx()
+                                     .typeId(0x01)
+                                     .addressNone()
+                                         .build()
+                                     .info()
+                                         .authority(authority)
+                                         .build()
+                                     .build());
+    }
+
+    static ProxyBeginExFW secureName(
+        String name)
+    {
+        return beginEx(ProxyFunctions.beginEx()
+                                     .typeId(0x01)
+                                     .addressNone()
+                                         .build()
+                                     .info()
+                                         .secure()
+                                             .name(name)
+                                             .build()
+                                         .build()
+                                     .build());
+    }
+
+    static ProxyBeginExFW beginEx(
+        byte[] bytes)
+    {
+        return new ProxyBeginExFW().wrap(new UnsafeBuffer(bytes), 0, bytes.length);
+    }
+}
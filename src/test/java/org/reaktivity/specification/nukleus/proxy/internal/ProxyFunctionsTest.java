@@ -16,10 +16,19 @@
 package org.reaktivity.specification.nukleus.proxy.internal;
 
 import static org.agrona.BitUtil.fromHex;
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.reaktivity.specification.nukleus.proxy.internal.ProxyFunctions.ProxyBeginExMismatch.ADDRESS;
+import static org.reaktivity.specification.nukleus.proxy.internal.ProxyFunctions.ProxyBeginExMismatch.ADDRESS_FAMILY;
+import static org.reaktivity.specification.nukleus.proxy.internal.ProxyFunctions.ProxyBeginExMismatch.INFO;
+import static org.reaktivity.specification.nukleus.proxy.internal.ProxyFunctions.ProxyBeginExMismatch.SECURE_INFO;
+import static org.reaktivity.specification.nukleus.proxy.internal.ProxyFunctions.ProxyBeginExMismatch.TYPE_ID;
+import static org.reaktivity.specification.nukleus.proxy.internal.ProxyFunctions.ProxyBeginExMismatch.UNDERFLOW;
 import static org.reaktivity.specification.nukleus.proxy.internal.types.ProxyAddressFamily.INET;
 import static org.reaktivity.specification.nukleus.proxy.internal.types.ProxyAddressFamily.INET4;
 import static org.reaktivity.specification.nukleus.proxy.internal.types.ProxyAddressFamily.INET6;
@@ -45,10 +54,13 @@ import javax.el.ELContext;
 import javax.el.FunctionMapper;
 
 import org.agrona.DirectBuffer;
+import org.agrona.MutableDirectBuffer;
 import org.agrona.concurrent.UnsafeBuffer;
 import org.junit.Test;
 import org.kaazing.k3po.lang.el.BytesMatcher;
 import org.kaazing.k3po.lang.internal.el.ExpressionContext;
+import org.reaktivity.specification.nukleus.proxy.internal.ProxyFunctions.ProxyBeginExBuilder;
+import org.reaktivity.specification.nukleus.proxy.internal.ProxyFunctions.ProxyBeginExMismatchException;
 import org.reaktivity.specification.nukleus.proxy.internal.types.ProxyInfoFW;
 import org.reaktivity.specification.nukleus.proxy.internal.types.stream.ProxyBeginExFW;
 
@@ -65,6 +77,38 @@ public class ProxyFunctionsTest
         assertSame(ProxyFunctions.class, function.getDeclaringClass());
     }
 
+    @Test
+    public void shouldGenerateRandomBytes() throws Exception
+    {
+        byte[] bytes = ProxyFunctions.randomBytes(8176);
+
+        assertEquals(8176, bytes.length);
+    }
+
+    @Test
+    public void shouldExposeIdentityWithoutCopy() throws UnknownHostException
+    {
+        byte[] build = ProxyFunctions.beginEx()
+                                     .typeId(0x01)
+                                     .addressNone()
+                                         .build()
+                                     .info()
+                                         .identity(fromHex("12345678"))
+                                         .build()
+                                     .build();
+        MutableDirectBuffer buffer = new UnsafeBuffer(build);
+        ProxyBeginExFW beginEx = new ProxyBeginExFW().wrap(buffer, 0, buffer.capacity());
+        ProxyInfoFW info = beginEx.infos().matchFirst(i -> i.kind() == IDENTITY);
+        DirectBuffer identity = info.identity().value().value();
+
+        assertEquals(4, identity.capacity());
+        assertEquals(0x12, identity.getByte(0));
+
+        buffer.putByte(build.length - 4, (byte) 0x21);
+
+        assertEquals(0x21, identity.getByte(0));
+    }
+
     @Test
     public void shouldGenerateNoneBeginExtension() throws UnknownHostException
     {
@@ -325,6 +369,141 @@ public class ProxyFunctionsTest
         }
     }
 
+    @Test
+    public void shouldGenerateBeginExtensionIntoBuffer() throws UnknownHostException
+    {
+        MutableDirectBuffer buffer = new UnsafeBuffer(new byte[1024]);
+        int sizeof = ProxyFunctions.beginEx()
+                                   .typeId(0x01)
+                                   .addressInet4()
+                                       .protocol("stream")
+                                       .source("192.168.0.1")
+                                       .destination("192.168.0.254")
+                                       .sourcePort(32768)
+                                       .destinationPort(443)
+                                       .build()
+                                   .info()
+                                       .alpn("echo")
+                                       .build()
+                                   .build(buffer, 8);
+
+        ProxyBeginExFW beginEx = new ProxyBeginExFW().wrap(buffer, 8, buffer.capacity());
+        assertEquals(beginEx.sizeof(), sizeof);
+        assertEquals(0x01, beginEx.typeId());
+        assertEquals(INET4, beginEx.address().kind());
+        assertEquals(new UnsafeBuffer(fromHex("c0a80001")), beginEx.address().inet4().source().value());
+        assertEquals(443, beginEx.address().inet4().destinationPort());
+        assertEquals(1, beginEx.infos().fieldCount());
+    }
+
+    @Test
+    public void shouldGenerateBeginExtensionAfterReset() throws UnknownHostException
+    {
+        ProxyBeginExBuilder builder = ProxyFunctions.beginEx();
+
+        byte[] unix = builder.typeId(0x01)
+                             .addressUnix()
+                                 .protocol("stream")
+                                 .source("source-123456789")
+                                 .destination("destination-123456789")
+                                 .build()
+                             .info()
+                                 .alpn("echo")
+                                 .secure()
+                                     .protocol("TLSv1.3")
+                                     .build()
+                                 .build()
+                             .build();
+
+        byte[] reused = builder.reset()
+                               .typeId(0x01)
+                               .addressUnix()
+                                   .protocol("stream")
+                                   .source("source-1234")
+                                   .destination("destination-5678")
+                                   .build()
+                               .info()
+                                   .alpn("h2")
+                                   .secure()
+                                       .protocol("TLSv1.2")
+                                       .build()
+                                   .build()
+                               .build();
+
+        byte[] expected = ProxyFunctions.beginEx()
+                                        .typeId(0x01)
+                                        .addressUnix()
+                                            .protocol("stream")
+                                            .source("source-1234")
+                                            .destination("destination-5678")
+                                            .build()
+                                        .info()
+                                            .alpn("h2")
+                                            .secure()
+                                                .protocol("TLSv1.2")
+                                                .build()
+                                            .build()
+                                        .build();
+
+        assertNotEquals(unix.length, reused.length);
+        assertArrayEquals(expected, reused);
+    }
+
+    @Test
+    public void shouldGenerateBeginExtensionsWithReusedBuilder() throws UnknownHostException
+    {
+        ProxyBeginExBuilder builder = ProxyFunctions.beginEx();
+        MutableDirectBuffer buffer = new UnsafeBuffer(new byte[1024]);
+        ProxyBeginExFW beginEx = new ProxyBeginExFW();
+
+        for (int round = 0; round < 2; round++)
+        {
+            int inet = builder.reset()
+                              .typeId(0x01)
+                              .addressInet()
+                                  .protocol("stream")
+                                  .source("*")
+                                  .destination("example.com")
+                                  .sourcePort(32768)
+                                  .destinationPort(443)
+                                  .build()
+                              .build(buffer, 0);
+            assertEquals(INET, beginEx.wrap(buffer, 0, inet).address().kind());
+
+            int inet6 = builder.reset()
+                               .typeId(0x01)
+                               .addressInet6()
+                                   .protocol("stream")
+                                   .source("fd12:3456:789a:1::1")
+                                   .destination("fd12:3456:789a:1::fe")
+                                   .sourcePort(32768)
+                                   .destinationPort(443)
+                                   .build()
+                               .build(buffer, 0);
+            assertEquals(INET6, beginEx.wrap(buffer, 0, inet6).address().kind());
+
+            int none = builder.reset()
+                              .typeId(0x01)
+                              .addressNone()
+                                  .build()
+                              .build(buffer, 0);
+            assertEquals(NONE, beginEx.wrap(buffer, 0, none).address().kind());
+
+            int inet4 = builder.reset()
+                               .typeId(0x01)
+                               .addressInet4()
+                                   .protocol("stream")
+                                   .source("192.168.0.1")
+                                   .destination("192.168.0.254")
+                                   .sourcePort(32768)
+                                   .destinationPort(443)
+                                   .build()
+                               .build(buffer, 0);
+            assertEquals(INET4, beginEx.wrap(buffer, 0, inet4).address().kind());
+            assertEquals(0, beginEx.infos().fieldCount());
+        }
+    }
+
     @Test
     public void shouldMatchInetBeginExtension() throws Exception
     {
@@ -374,6 +553,39 @@ public class ProxyFunctionsTest
         assertNotNull(matcher.match(byteBuf));
     }
 
+    @Test
+    public void shouldMatchBeginExtensionInfosRepeatedly() throws Exception
+    {
+        BytesMatcher matcher = ProxyFunctions.matchBeginEx()
+                                             .typeId(0x01)
+                                             .info()
+                                                 .alpn("h2")
+                                                 .alpn("echo")
+                                                 .secure()
+                                                     .protocol("TLSv1.3")
+                                                     .build()
+                                                 .build()
+                                             .build();
+
+        ByteBuffer byteBuf = ByteBuffer.allocate(1024);
+
+        new ProxyBeginExFW.Builder().wrap(new UnsafeBuffer(byteBuf), 0, byteBuf.capacity())
+            .typeId(0x01)
+            .address(a -> a.none(n -> {}))
+            .infosItem(i -> i.authority("example.com"))
+            .infosItem(i -> i.secure(s -> s.protocol("TLSv1.3")))
+            .infosItem(i -> i.secure(s -> s.cipher("ECDHE-RSA-AES128-GCM-SHA256")))
+            .infosItem(i -> i.alpn("echo"))
+            .infosItem(i -> i.alpn("echo"))
+            .build();
+
+        for (int i = 0; i < 3; i++)
+        {
+            byteBuf.rewind();
+            assertNotNull(matcher.match(byteBuf));
+        }
+    }
+
     @Test
     public void shouldMatchNoneBeginExtension() throws Exception
     {
@@ -387,6 +599,7 @@ public class ProxyFunctionsTest
                                                  .identity(fromHex("12345678"))
                                                  .namespace("example")
                                                  .secure()
+                                                     .client(5, 0)
                                                      .protocol("TLSv1.3")
                                                      .cipher("ECDHE-RSA-AES128-GCM-SHA256")
                                                      .signature("SHA256")
@@ -405,6 +618,7 @@ public class ProxyFunctionsTest
             .infosItem(i -> i.authority("example.com"))
             .infosItem(i -> i.identity(id -> id.value(v -> v.set(fromHex("12345678")))))
             .infosItem(i -> i.namespace("example"))
+            .infosItem(i -> i.secure(s -> s.client(c -> c.flags(5).verify(0))))
             .infosItem(i -> i.secure(s -> s.protocol("TLSv1.3")))
             .infosItem(i -> i.secure(s -> s.cipher("ECDHE-RSA-AES128-GCM-SHA256")))
             .infosItem(i -> i.secure(s -> s.signature("SHA256")))
@@ -864,6 +1078,33 @@ public class ProxyFunctionsTest
         assertNull(matcher.match(byteBuf));
     }
 
+    @Test(expected = Exception.class)
+    public void shouldNotMatchInetBeginExtensionSecureClient() throws Exception
+    {
+        BytesMatcher matcher = ProxyFunctions.matchBeginEx()
+                                             .typeId(0x01)
+                                             .info()
+                                                 .secure()
+                                                     .client(7, 0)
+                                                     .build()
+                                                 .build()
+                                             .build();
+
+        ByteBuffer byteBuf = ByteBuffer.allocate(1024);
+
+        new ProxyBeginExFW.Builder().wrap(new UnsafeBuffer(byteBuf), 0, byteBuf.capacity())
+            .typeId(0x01)
+            .address(a -> a.inet(i -> i.protocol(p -> p.set(STREAM))
+                                       .source("*")
+                                       .destination("example.com")
+                                       .sourcePort(32768)
+                                       .destinationPort(443)))
+            .infosItem(i -> i.secure(s -> s.client(c -> c.flags(7).verify(10))))
+            .build();
+
+        assertNull(matcher.match(byteBuf));
+    }
+
     @Test
     public void shouldMatchInet4BeginExtension() throws Exception
     {
@@ -1911,6 +2152,227 @@ public class ProxyFunctionsTest
         matcher.match(byteBuf);
     }
 
+    @Test
+    public void shouldReportUnderflowMismatch() throws Exception
+    {
+        BytesMatcher matcher = ProxyFunctions.matchBeginEx()
+                                             .typeId(0x01)
+                                             .build();
+
+        ByteBuffer byteBuf = ByteBuffer.allocate(1);
+
+        ProxyBeginExMismatchException ex = assertMismatch(matcher, byteBuf);
+        assertEquals(UNDERFLOW, ex.mismatch());
+        assertEquals(0, ex.offset());
+        assertEquals("UNDERFLOW mismatch at offset 0: null", ex.getMessage());
+    }
+
+    @Test
+    public void shouldReportTypeIdMismatch() throws Exception
+    {
+        BytesMatcher matcher = ProxyFunctions.matchBeginEx()
+                                             .typeId(0x01)
+                                             .build();
+
+        ByteBuffer byteBuf = ByteBuffer.allocate(1024);
+
+        new ProxyBeginExFW.Builder().wrap(new UnsafeBuffer(byteBuf), 0, byteBuf.capacity())
+            .typeId(0x02)
+            .address(a -> a.none(n -> {}))
+            .build();
+
+        ProxyBeginExMismatchException ex = assertMismatch(matcher, byteBuf);
+        assertEquals(TYPE_ID, ex.mismatch());
+        assertNull(ex.infoType());
+        assertNull(ex.secureInfoType());
+        assertEquals(0, ex.offset());
+        assertEquals(0, byteBuf.position());
+        assertTrue(ex.getMessage().startsWith("TYPE_ID mismatch at offset 0: PROXY_BEGIN_EX [typeId=2"));
+    }
+
+    @Test
+    public void shouldReportAddressFamilyMismatch() throws Exception
+    {
+        BytesMatcher matcher = ProxyFunctions.matchBeginEx()
+                                             .typeId(0x01)
+                                             .addressInet4()
+                                                 .build()
+                                             .build();
+
+        ByteBuffer byteBuf = ByteBuffer.allocate(1024);
+
+        new ProxyBeginExFW.Builder().wrap(new UnsafeBuffer(byteBuf), 0, byteBuf.capacity())
+            .typeId(0x01)
+            .address(a -> a.none(n -> {}))
+            .build();
+
+        ProxyBeginExMismatchException ex = assertMismatch(matcher, byteBuf);
+        assertEquals(ADDRESS_FAMILY, ex.mismatch());
+        assertEquals(4, ex.offset());
+    }
+
+    @Test
+    public void shouldReportAddressMismatch() throws Exception
+    {
+        BytesMatcher matcher = ProxyFunctions.matchBeginEx()
+                                             .typeId(0x01)
+                                             .addressInet4()
+                                                 .destinationPort(80)
+                                                 .build()
+                                             .build();
+
+        ByteBuffer byteBuf = ByteBuffer.allocate(1024);
+
+        new ProxyBeginExFW.Builder().wrap(new UnsafeBuffer(byteBuf), 0, byteBuf.capacity())
+            .typeId(0x01)
+            .address(a -> a.inet4(i -> i.protocol(p -> p.set(STREAM))
+                                        .source(new UnsafeBuffer(fromHex("c0a80001")), 0, 4)
+                                        .destination(new UnsafeBuffer(fromHex("c0a800fe")), 0, 4)
+                                        .sourcePort(32768)
+                                        .destinationPort(443)))
+            .build();
+
+        ProxyBeginExMismatchException ex = assertMismatch(matcher, byteBuf);
+        assertEquals(ADDRESS, ex.mismatch());
+        assertEquals(4, ex.offset());
+    }
+
+    @Test
+    public void shouldReportInfoMismatch() throws Exception
+    {
+        BytesMatcher matcher = ProxyFunctions.matchBeginEx()
+                                             .typeId(0x01)
+                                             .info()
+                                                 .authority("example.com")
+                                                 .alpn("echo")
+                                                 .build()
+                                             .build();
+
+        ByteBuffer byteBuf = ByteBuffer.allocate(1024);
+
+        new ProxyBeginExFW.Builder().wrap(new UnsafeBuffer(byteBuf), 0, byteBuf.capacity())
+            .typeId(0x01)
+            .address(a -> a.none(n -> {}))
+            .infosItem(i -> i.authority("example.com"))
+            .infosItem(i -> i.alpn("h2"))
+            .build();
+
+        ProxyBeginExMismatchException ex = assertMismatch(matcher, byteBuf);
+        assertEquals(INFO, ex.mismatch());
+        assertEquals(ALPN, ex.infoType());
+        assertNull(ex.secureInfoType());
+        assertEquals(27, ex.offset());
+        assertTrue(ex.getMessage().startsWith("INFO ALPN mismatch at offset 27: "));
+    }
+
+    @Test
+    public void shouldReportMismatchAfterBufferReuse() throws Exception
+    {
+        BytesMatcher matcher = ProxyFunctions.matchBeginEx()
+                                             .typeId(0x01)
+                                             .info()
+                                                 .alpn("echo")
+                                                 .build()
+                                             .build();
+
+        ByteBuffer byteBuf = ByteBuffer.allocate(1024);
+
+        new ProxyBeginExFW.Builder().wrap(new UnsafeBuffer(byteBuf), 0, byteBuf.capacity())
+            .typeId(0x01)
+            .address(a -> a.none(n -> {}))
+            .infosItem(i -> i.alpn("h2"))
+            .build();
+
+        ProxyBeginExMismatchException ex = assertMismatch(matcher, byteBuf);
+        String message = ex.getMessage();
+
+        new UnsafeBuffer(byteBuf).setMemory(0, byteBuf.capacity(), (byte) 0xff);
+
+        assertEquals(message, ex.getMessage());
+    }
+
+    @Test
+    public void shouldReportSecureInfoMismatch() throws Exception
+    {
+        BytesMatcher matcher = ProxyFunctions.matchBeginEx()
+                                             .typeId(0x01)
+                                             .stackless()
+                                             .info()
+                                                 .secure()
+                                                     .protocol("TLSv1.3")
+                                                     .cipher("ECDHE-RSA-AES128-GCM-SHA256")
+                                                     .build()
+                                                 .build()
+                                             .build();
+
+        ByteBuffer byteBuf = ByteBuffer.allocate(1024);
+
+        new ProxyBeginExFW.Builder().wrap(new UnsafeBuffer(byteBuf), 0, byteBuf.capacity())
+            .typeId(0x01)
+            .address(a -> a.none(n -> {}))
+            .infosItem(i -> i.secure(s -> s.protocol("TLSv1.3")))
+            .build();
+
+        ProxyBeginExMismatchException ex = assertMismatch(matcher, byteBuf);
+        assertEquals(SECURE_INFO, ex.mismatch());
+        assertEquals(SECURE, ex.infoType());
+        assertEquals(CIPHER, ex.secureInfoType());
+        assertEquals(23, ex.offset());
+        assertEquals(0, ex.getStackTrace().length);
+        assertTrue(ex.getMessage().startsWith("SECURE_INFO CIPHER mismatch at offset 23: "));
+    }
+
+    @Test
+    public void shouldReportSecureInfoMismatchBeyondInitialExpectations() throws Exception
+    {
+        BytesMatcher matcher = ProxyFunctions.matchBeginEx()
+                                             .typeId(0x01)
+                                             .info()
+                                                 .alpn("echo")
+                                                 .authority("example.com")
+                                                 .namespace("example")
+                                                 .secure()
+                                                     .protocol("TLSv1.3")
+                                                     .cipher("ECDHE-RSA-AES128-GCM-SHA256")
+                                                     .key("RSA2048")
+                                                     .build()
+                                                 .build()
+                                             .build();
+
+        ByteBuffer byteBuf = ByteBuffer.allocate(1024);
+
+        new ProxyBeginExFW.Builder().wrap(new UnsafeBuffer(byteBuf), 0, byteBuf.capacity())
+            .typeId(0x01)
+            .address(a -> a.none(n -> {}))
+            .infosItem(i -> i.alpn("echo"))
+            .infosItem(i -> i.authority("example.com"))
+            .infosItem(i -> i.namespace("example"))
+            .infosItem(i -> i.secure(s -> s.protocol("TLSv1.3")))
+            .infosItem(i -> i.secure(s -> s.cipher("ECDHE-RSA-AES128-GCM-SHA256")))
+            .infosItem(i -> i.secure(s -> s.key("RSA4096")))
+            .build();
+
+        ProxyBeginExMismatchException ex = assertMismatch(matcher, byteBuf);
+        assertEquals(SECURE_INFO, ex.mismatch());
+        assertEquals(KEY, ex.secureInfoType());
+        assertTrue(ex.getMessage().startsWith("SECURE_INFO KEY mismatch at offset " + ex.offset() + ": "));
+    }
+
+    private static ProxyBeginExMismatchException assertMismatch(
+        BytesMatcher matcher,
+        ByteBuffer byteBuf) throws Exception
+    {
+        try
+        {
+            matcher.match(byteBuf);
+            throw new AssertionError("expected mismatch");
+        }
+        catch (ProxyBeginExMismatchException ex)
+        {
+            return ex;
+        }
+    }
+
     private static DirectBuffer paddedUtf8(
         String utf8,
         int length)
@@ -0,0 +1,81 @@
+/**
+ * Copyright 2016-2021 The Reaktivity Project
+ *
+ * The Reaktivity Project licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package org.reaktivity.specification.nukleus.proxy.internal;
+
+import static java.nio.charset.StandardCharsets.US_ASCII;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.agrona.concurrent.UnsafeBuffer;
+import org.junit.Test;
+
+public class ProxyNameTest
+{
+    @Test
+    public void shouldMatchExactName()
+    {
+        ProxyName name = ProxyName.of("Example.COM");
+
+        assertFalse(name.wildcard());
+        assertTrue(matches(name, "example.com"));
+        assertTrue(matches(name, "EXAMPLE.com"));
+        assertFalse(matches(name, "www.example.com"));
+        assertFalse(matches(name, "example.net"));
+        assertFalse(name.matches(null));
+    }
+
+    @Test
+    public void shouldMatchWildcardName()
+    {
+        ProxyName name = ProxyName.of("*.example.com");
+
+        assertTrue(name.wildcard());
+        assertTrue(matches(name, "www.example.com"));
+        assertTrue(matches(name, "api.eu.Example.com"));
+        assertFalse(matches(name, "example.com"));
+        assertFalse(matches(name, ".example.com"));
+        assertFalse(matches(name, "wwwexample.com"));
+        assertFalse(matches(name, "www.example.net"));
+    }
+
+    @Test
+    public void shouldHashLabelsIgnoringCase()
+    {
+        assertEquals(ProxyName.of("example.com").hash(), ProxyName.of("*.EXAMPLE.com").hash());
+        assertNotEquals(ProxyName.of("example.com").hash(), ProxyName.of("example.net").hash());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldRejectEmptyWildcard()
+    {
+        ProxyName.of("*.");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldRejectInnerWildcard()
+    {
+        ProxyName.of("www.*.example.com");
+    }
+
+    private static boolean matches(
+        ProxyName name,
+        String value)
+    {
+        return name.matches(new UnsafeBuffer(value.getBytes(US_ASCII)));
+    }
+}
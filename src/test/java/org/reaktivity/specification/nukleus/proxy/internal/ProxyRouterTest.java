@@ -0,0 +1,253 @@
+/**
+ * Copyright 2016-2021 The Reaktivity Project
+ *
+ * The Reaktivity Project licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package org.reaktivity.specification.nukleus.proxy.internal;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+import static org.reaktivity.specification.nukleus.proxy.internal.ProxyConditionTest.authority;
+import static org.reaktivity.specification.nukleus.proxy.internal.ProxyConditionTest.beginEx;
+import static org.reaktivity.specification.nukleus.proxy.internal.ProxyConditionTest.inet;
+import static org.reaktivity.specification.nukleus.proxy.internal.ProxyConditionTest.inet4;
+import static org.reaktivity.specification.nukleus.proxy.internal.ProxyConditionTest.inet6;
+import static org.reaktivity.specification.nukleus.proxy.internal.ProxyConditionTest.none;
+import static org.reaktivity.specification.nukleus.proxy.internal.ProxyConditionTest.secureName;
+import static org.reaktivity.specification.nukleus.proxy.internal.ProxyConditionTest.unix;
+import static org.reaktivity.specification.nukleus.proxy.internal.ProxyRouter.ROUTE_NONE;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Function;
+
+import org.junit.Test;
+import org.reaktivity.specification.nukleus.proxy.internal.types.stream.ProxyBeginExFW;
+
+public class ProxyRouterTest
+{
+    private static final List<Function<List<ProxyCondition>, ProxyRouter>> STRATEGIES =
+            asList(ProxyRouter::linear, ProxyRouter::indexed);
+
+    @Test
+    public void shouldPreferLongestDestinationPrefix() throws Exception
+    {
+        List<ProxyCondition> conditions = asList(
+            ProxyCondition.builder().source("192.168.0.0/16").build(),
+            ProxyCondition.builder().destination("192.168.0.0/24").destinationPort("443-8443").build(),
+            ProxyCondition.builder().destination("192.168.0.254").destinationPort("443").build());
+
+        for (Function<List<ProxyCondition>, ProxyRouter> strategy : STRATEGIES)
+        {
+            ProxyRouter router = strategy.apply(conditions);
+
+            assertEquals(2, router.resolve(inet4("stream", "192.168.0.1", "192.168.0.254", 32768, 443)));
+            assertEquals(1, router.resolve(inet4("stream", "192.168.0.1", "192.168.0.254", 32768, 8443)));
+            assertEquals(1, router.resolve(inet4("stream", "192.168.0.1", "192.168.0.1", 32768, 443)));
+            assertEquals(0, router.resolve(inet4("stream", "192.168.1.1", "192.168.0.254", 32768, 80)));
+            assertEquals(0, router.resolve(inet4("stream", "192.168.1.1", "10.0.0.1", 32768, 443)));
+            assertEquals(ROUTE_NONE, router.resolve(inet4("stream", "10.0.0.1", "10.0.0.254", 32768, 443)));
+            assertEquals(ROUTE_NONE, router.resolve(inet6("stream", "fd12:3456:789a:1::1", "fd12:3456:789a:1::fe", 32768, 443)));
+        }
+    }
+
+    @Test
+    public void shouldPreferLongestSourcePrefix() throws Exception
+    {
+        List<ProxyCondition> conditions = asList(
+            ProxyCondition.builder().family("inet6").source("fd12:3456:789a::/48").build(),
+            ProxyCondition.builder().source("fd12:3456:789a:1::/64").build());
+
+        for (Function<List<ProxyCondition>, ProxyRouter> strategy : STRATEGIES)
+        {
+            ProxyRouter router = strategy.apply(conditions);
+
+            assertEquals(1, router.resolve(inet6("stream", "fd12:3456:789a:1::1", "fd12:3456:789a:1::fe", 32768, 443)));
+            assertEquals(0, router.resolve(inet6("stream", "fd12:3456:789a:2::1", "fd12:3456:789a:1::fe", 32768, 443)));
+            assertEquals(ROUTE_NONE, router.resolve(inet4("stream", "192.168.0.1", "192.168.0.254", 32768, 443)));
+        }
+    }
+
+    @Test
+    public void shouldPreferFirstDeclared() throws Exception
+    {
+        List<ProxyCondition> conditions = asList(
+            ProxyCondition.builder().destinationPort("443").alpn("h2").build(),
+            ProxyCondition.builder().transport("stream").build(),
+            ProxyCondition.builder().destinationPort("443").build(),
+            ProxyCondition.builder().build());
+
+        for (Function<List<ProxyCondition>, ProxyRouter> strategy : STRATEGIES)
+        {
+            ProxyRouter router = strategy.apply(conditions);
+
+            assertEquals(1, router.resolve(inet4("stream", "192.168.0.1", "192.168.0.254", 32768, 443)));
+            assertEquals(2, router.resolve(inet4("datagram", "192.168.0.1", "192.168.0.254", 32768, 443)));
+            assertEquals(3, router.resolve(inet4("datagram", "192.168.0.1", "192.168.0.254", 32768, 80)));
+            assertEquals(0, router.resolve(beginEx(ProxyFunctions.beginEx()
+                                                                 .typeId(0x01)
+                                                                 .addressInet4()
+                                                                     .protocol("stream")
+                                                                     .source("192.168.0.1")
+                                                                     .destination("192.168.0.254")
+                                                                     .sourcePort(32768)
+                                                                     .destinationPort(443)
+                                                                     .build()
+                                                                 .info()
+                                                                     .alpn("h2")
+                                                                     .build()
+                                                                 .build())));
+        }
+    }
+
+    @Test
+    public void shouldResolveWithoutAddressPrefix() throws Exception
+    {
+        List<ProxyCondition> conditions = asList(
+            ProxyCondition.builder().family("inet").destinationPort("443").build(),
+            ProxyCondition.builder().family("unix").transport("datagram").build(),
+            ProxyCondition.builder().family("none").build());
+
+        for (Function<List<ProxyCondition>, ProxyRouter> strategy : STRATEGIES)
+        {
+            ProxyRouter router = strategy.apply(conditions);
+
+            assertEquals(0, router.resolve(inet("stream", "example.com", 443)));
+            assertEquals(ROUTE_NONE, router.resolve(inet("stream", "example.com", 80)));
+            assertEquals(1, router.resolve(unix("datagram")));
+            assertEquals(ROUTE_NONE, router.resolve(unix("stream")));
+            assertEquals(2, router.resolve(none()));
+        }
+    }
+
+    @Test
+    public void shouldResolveOverlappingPortRanges() throws Exception
+    {
+        List<ProxyCondition> conditions = asList(
+            ProxyCondition.builder().destinationPort("8000-65535").build(),
+            ProxyCondition.builder().destinationPort("443-8443").build(),
+            ProxyCondition.builder().destinationPort("0-442").build(),
+            ProxyCondition.builder().family("unix").build());
+
+        for (Function<List<ProxyCondition>, ProxyRouter> strategy : STRATEGIES)
+        {
+            ProxyRouter router = strategy.apply(conditions);
+
+            assertEquals(2, router.resolve(inet("stream", "example.com", 80)));
+            assertEquals(1, router.resolve(inet("stream", "example.com", 443)));
+            assertEquals(0, router.resolve(inet("stream", "example.com", 8443)));
+            assertEquals(0, router.resolve(inet4("stream", "192.168.0.1", "192.168.0.254", 32768, 65535)));
+            assertEquals(3, router.resolve(unix("stream")));
+        }
+    }
+
+    @Test
+    public void shouldResolveAuthorityAndSecureName() throws Exception
+    {
+        List<ProxyCondition> conditions = asList(
+            ProxyCondition.builder().authority("*.example.com").build(),
+            ProxyCondition.builder().authority("api.example.com").build(),
+            ProxyCondition.builder().secureName("*.eu.example.net").build(),
+            ProxyCondition.builder().secureName("*.example.net").build(),
+            ProxyCondition.builder().family("inet4").build());
+
+        for (Function<List<ProxyCondition>, ProxyRouter> strategy : STRATEGIES)
+        {
+            ProxyRouter router = strategy.apply(conditions);
+
+            assertEquals(0, router.resolve(authority("api.example.com")));
+            assertEquals(0, router.resolve(authority("WWW.Example.com")));
+            assertEquals(ROUTE_NONE, router.resolve(authority("example.com")));
+            assertEquals(2, router.resolve(secureName("www.eu.example.net")));
+            assertEquals(3, router.resolve(secureName("www.us.example.net")));
+            assertEquals(ROUTE_NONE, router.resolve(secureName("www.example.com")));
+            assertEquals(4, router.resolve(inet4("stream", "192.168.0.1", "192.168.0.254", 32768, 443)));
+        }
+    }
+
+    @Test
+    public void shouldResolveManyWildcardSuffixes() throws Exception
+    {
+        List<ProxyCondition> conditions = new ArrayList<>();
+        String name = "example.com";
+        for (int label = 0; label < 16; label++)
+        {
+            conditions.add(ProxyCondition.builder().authority("*." + name).transport("datagram").build());
+            name = "l" + label + "." + name;
+        }
+        conditions.add(ProxyCondition.builder().authority("*.example.com").build());
+
+        for (Function<List<ProxyCondition>, ProxyRouter> strategy : STRATEGIES)
+        {
+            ProxyRouter router = strategy.apply(conditions);
+
+            assertEquals(16, router.resolve(authority(name)));
+        }
+    }
+
+    @Test
+    public void shouldResolveSameRouteForEachStrategy() throws Exception
+    {
+        final Random random = new Random(0x50524f5859L);
+
+        List<ProxyCondition> conditions = new ArrayList<>();
+        for (int i = 0; i < 512; i++)
+        {
+            ProxyCondition.Builder condition = ProxyCondition.builder();
+            if (random.nextBoolean())
+            {
+                final int length = 8 + random.nextInt(25);
+                condition.destination(String.format("10.%d.%d.0/%d", random.nextInt(4), random.nextInt(4), length));
+            }
+            if (random.nextBoolean())
+            {
+                condition.source(String.format("10.%d.0.0/%d", random.nextInt(4), 8 + random.nextInt(9)));
+            }
+            if (random.nextBoolean())
+            {
+                final int port = 440 + random.nextInt(8);
+                final String range = port + "-" + (port + random.nextInt(4));
+                condition.destinationPort(random.nextBoolean() ? Integer.toString(port) : range);
+            }
+            if (random.nextBoolean())
+            {
+                final String authority = String.format("a%d.example.com", random.nextInt(4));
+                condition.authority(random.nextBoolean() ? authority : "*." + authority);
+            }
+            conditions.add(condition.build());
+        }
+
+        ProxyRouter linear = ProxyRouter.linear(conditions);
+        ProxyRouter indexed = ProxyRouter.indexed(conditions);
+
+        for (int i = 0; i < 4096; i++)
+        {
+            ProxyBeginExFW beginEx = beginEx(ProxyFunctions.beginEx()
+                .typeId(0x01)
+                .addressInet4()
+                    .protocol("stream")
+                    .source(String.format("10.%d.%d.%d", random.nextInt(4), random.nextInt(4), random.nextInt(256)))
+                    .destination(String.format("10.%d.%d.%d", random.nextInt(4), random.nextInt(4), random.nextInt(256)))
+                    .sourcePort(32768)
+                    .destinationPort(440 + random.nextInt(12))
+                    .build()
+                .info()
+                    .authority(String.format(random.nextBoolean() ? "a%d.example.com" : "h.a%d.example.com", random.nextInt(4)))
+                    .build()
+                .build());
+
+            assertEquals(linear.resolve(beginEx), indexed.resolve(beginEx));
+        }
+    }
+}
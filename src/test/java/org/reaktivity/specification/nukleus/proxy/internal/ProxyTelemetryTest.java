@@ -0,0 +1,66 @@
+/**
+ * Copyright 2016-2021 The Reaktivity Project
+ *
+ * The Reaktivity Project licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package org.reaktivity.specification.nukleus.proxy.internal;
+
+import static org.junit.Assert.assertEquals;
+import static org.reaktivity.specification.nukleus.proxy.internal.ProxyV2Decoder.ProxyV2Reject.ADDRESS_FAMILY_MISMATCH;
+import static org.reaktivity.specification.nukleus.proxy.internal.ProxyV2Decoder.ProxyV2Reject.CRC32C_MISMATCH;
+import static org.reaktivity.specification.nukleus.proxy.internal.ProxyV2Decoder.ProxyV2Reject.HEADER_MISMATCH;
+import static org.reaktivity.specification.nukleus.proxy.internal.types.ProxyAddressFamily.INET4;
+import static org.reaktivity.specification.nukleus.proxy.internal.types.ProxyAddressFamily.NONE;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import org.junit.Test;
+import org.reaktivity.specification.nukleus.proxy.internal.ProxyV2Decoder.ProxyV2Reject;
+import org.reaktivity.specification.nukleus.proxy.internal.types.ProxyAddressFamily;
+
+public class ProxyTelemetryTest
+{
+    @Test
+    public void shouldNameAcceptedByFamily() throws Exception
+    {
+        assertEquals("proxy.accepted.inet4", ProxyTelemetry.accepted(INET4));
+        assertEquals("proxy.accepted.none", ProxyTelemetry.accepted(NONE));
+    }
+
+    @Test
+    public void shouldNameRejectedByReason() throws Exception
+    {
+        assertEquals("proxy.rejected.header.mismatch", ProxyTelemetry.rejected(HEADER_MISMATCH));
+        assertEquals("proxy.rejected.address.family.mismatch", ProxyTelemetry.rejected(ADDRESS_FAMILY_MISMATCH));
+        assertEquals("proxy.rejected.crc32c.mismatch", ProxyTelemetry.rejected(CRC32C_MISMATCH));
+    }
+
+    @Test
+    public void shouldNameEachMetricUniquely() throws Exception
+    {
+        Set<String> names = new HashSet<>();
+        names.add(ProxyTelemetry.HEADER_LATENCY);
+        names.add(ProxyTelemetry.REJECTED_HEADER_TIMEOUT);
+        for (ProxyAddressFamily family : ProxyAddressFamily.values())
+        {
+            names.add(ProxyTelemetry.accepted(family));
+        }
+        for (ProxyV2Reject reason : ProxyV2Reject.values())
+        {
+            names.add(ProxyTelemetry.rejected(reason));
+        }
+
+        assertEquals(2 + ProxyAddressFamily.values().length + ProxyV2Reject.values().length, names.size());
+    }
+}
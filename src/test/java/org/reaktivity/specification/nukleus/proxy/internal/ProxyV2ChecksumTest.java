@@ -0,0 +1,75 @@
+/**
+ * Copyright 2016-2021 The Reaktivity Project
+ *
+ * The Reaktivity Project licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package org.reaktivity.specification.nukleus.proxy.internal;
+
+import static org.agrona.BitUtil.fromHex;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.ByteBuffer;
+
+import org.agrona.BufferUtil;
+import org.agrona.MutableDirectBuffer;
+import org.agrona.concurrent.UnsafeBuffer;
+import org.junit.Test;
+
+public class ProxyV2ChecksumTest
+{
+    private static final String HEADER = "0d0a0d0a000d0a515549540a" + "21" + "11" + "0013" +
+            "c0a80001" + "c0a800fe" + "8000" + "01bb" + "030004";
+
+    private final ProxyV2Checksum checksum = new ProxyV2Checksum();
+
+    @Test
+    public void shouldVerifyHeapHeader() throws Exception
+    {
+        MutableDirectBuffer buffer = new UnsafeBuffer(fromHex("ff" + HEADER + "994db946" + "ff"), 1, 35);
+
+        assertTrue(checksum.verify(buffer, 0, 35, 31));
+    }
+
+    @Test
+    public void shouldVerifyByteBufferHeader() throws Exception
+    {
+        ByteBuffer byteBuf = ByteBuffer.allocateDirect(37);
+        MutableDirectBuffer buffer = new UnsafeBuffer(byteBuf, 1, 35);
+        buffer.putBytes(0, fromHex(HEADER + "994db946"));
+
+        assertTrue(checksum.verify(buffer, 0, 35, 31));
+        assertEquals(0, byteBuf.position());
+        assertEquals(37, byteBuf.limit());
+    }
+
+    @Test
+    public void shouldVerifyAddressHeader() throws Exception
+    {
+        ByteBuffer byteBuf = ByteBuffer.allocateDirect(35);
+        MutableDirectBuffer buffer = new UnsafeBuffer(BufferUtil.address(byteBuf), byteBuf.capacity());
+        buffer.putBytes(0, fromHex(HEADER + "994db946"));
+
+        assertTrue(checksum.verify(buffer, 0, 35, 31));
+    }
+
+    @Test
+    public void shouldIgnoreChecksumField() throws Exception
+    {
+        MutableDirectBuffer buffer = new UnsafeBuffer(fromHex(HEADER + "ff16d3da"));
+
+        assertEquals(0x994db946, checksum.checksum(buffer, 0, 35, 31));
+        assertFalse(checksum.verify(buffer, 0, 35, 31));
+    }
+}
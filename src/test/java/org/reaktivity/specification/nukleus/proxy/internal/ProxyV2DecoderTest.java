@@ -0,0 +1,530 @@
+/**
+ * Copyright 2016-2021 The Reaktivity Project
+ *
+ * The Reaktivity Project licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package org.reaktivity.specification.nukleus.proxy.internal;
+
+import static org.agrona.BitUtil.fromHex;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.reaktivity.specification.nukleus.proxy.internal.ProxyV2Decoder.DECODE_REJECTED;
+import static org.reaktivity.specification.nukleus.proxy.internal.ProxyV2Decoder.DECODE_UNDERFLOW;
+import static org.reaktivity.specification.nukleus.proxy.internal.ProxyV2Decoder.ProxyV2Reject.ADDRESS_FAMILY_MISMATCH;
+import static org.reaktivity.specification.nukleus.proxy.internal.ProxyV2Decoder.ProxyV2Reject.ADDRESS_UNDERFLOW;
+import static org.reaktivity.specification.nukleus.proxy.internal.ProxyV2Decoder.ProxyV2Reject.COMMAND_MISMATCH;
+import static org.reaktivity.specification.nukleus.proxy.internal.ProxyV2Decoder.ProxyV2Reject.CRC32C_MISMATCH;
+import static org.reaktivity.specification.nukleus.proxy.internal.ProxyV2Decoder.ProxyV2Reject.CRC32C_OVERFLOW;
+import static org.reaktivity.specification.nukleus.proxy.internal.ProxyV2Decoder.ProxyV2Reject.CRC32C_UNDERFLOW;
+import static org.reaktivity.specification.nukleus.proxy.internal.ProxyV2Decoder.ProxyV2Reject.HEADER_MISMATCH;
+import static org.reaktivity.specification.nukleus.proxy.internal.ProxyV2Decoder.ProxyV2Reject.HEADER_OVERFLOW;
+import static org.reaktivity.specification.nukleus.proxy.internal.ProxyV2Decoder.ProxyV2Reject.SSL_UNDERFLOW;
+import static org.reaktivity.specification.nukleus.proxy.internal.ProxyV2Decoder.ProxyV2Reject.TLV_OVERFLOW;
+import static org.reaktivity.specification.nukleus.proxy.internal.ProxyV2Decoder.ProxyV2Reject.TLV_UNDERFLOW;
+import static org.reaktivity.specification.nukleus.proxy.internal.ProxyV2Decoder.ProxyV2Reject.VERSION_MISMATCH;
+
+import java.util.Arrays;
+
+import org.agrona.DirectBuffer;
+import org.agrona.MutableDirectBuffer;
+import org.agrona.concurrent.UnsafeBuffer;
+import org.junit.Test;
+import org.reaktivity.specification.nukleus.proxy.internal.ProxyV2Decoder.ProxyV2Reject;
+import org.reaktivity.specification.nukleus.proxy.internal.types.stream.ProxyBeginExFW;
+
+public class ProxyV2DecoderTest
+{
+    private static final String SIGNATURE = "0d0a0d0a000d0a515549540a";
+    private static final String TCP4_ADDRESS = "c0a80001" + "c0a800fe" + "8000" + "01bb";
+
+    private final ProxyV2Decoder decoder = new ProxyV2Decoder();
+    private final MutableDirectBuffer writeBuffer = new UnsafeBuffer(new byte[1024 * 8]);
+    private final ProxyBeginExFW.Builder beginExRW = new ProxyBeginExFW.Builder();
+
+    @Test
+    public void shouldDecodeLocal() throws Exception
+    {
+        DirectBuffer header = header("20" + "00" + "0000");
+
+        assertEquals(16, decode(header));
+        assertArrayEquals(ProxyFunctions.beginEx()
+                                        .typeId(0x01)
+                                        .addressNone()
+                                            .build()
+                                        .build(), beginEx());
+    }
+
+    @Test
+    public void shouldDecodeLocalIgnoringAddressAndTlvs() throws Exception
+    {
+        DirectBuffer header = header("20" + "11" + "0012" + TCP4_ADDRESS + "030003" + "010203");
+
+        assertEquals(34, decode(header));
+        assertArrayEquals(ProxyFunctions.beginEx()
+                                        .typeId(0x01)
+                                        .addressNone()
+                                            .build()
+                                        .build(), beginEx());
+    }
+
+    @Test
+    public void shouldDecodeProxyUnspecified() throws Exception
+    {
+        DirectBuffer header = header("21" + "00" + "0007" + "010004" + hex("echo"));
+
+        assertEquals(23, decode(header));
+        assertArrayEquals(ProxyFunctions.beginEx()
+                                        .typeId(0x01)
+                                        .addressNone()
+                                            .build()
+                                        .info()
+                                            .alpn("echo")
+                                            .build()
+                                        .build(), beginEx());
+    }
+
+    @Test
+    public void shouldDecodeTcp4() throws Exception
+    {
+        DirectBuffer header = header("21" + "11" + "000c" + TCP4_ADDRESS);
+
+        assertEquals(28, decode(header));
+        assertArrayEquals(ProxyFunctions.beginEx()
+                                        .typeId(0x01)
+                                        .addressInet4()
+                                            .protocol("stream")
+                                            .source("192.168.0.1")
+                                            .destination("192.168.0.254")
+                                            .sourcePort(32768)
+                                            .destinationPort(443)
+                                            .build()
+                                        .build(), beginEx());
+    }
+
+    @Test
+    public void shouldDecodeUdp4() throws Exception
+    {
+        DirectBuffer header = header("21" + "12" + "000c" + TCP4_ADDRESS);
+
+        assertEquals(28, decode(header));
+        assertArrayEquals(ProxyFunctions.beginEx()
+                                        .typeId(0x01)
+                                        .addressInet4()
+                                            .protocol("datagram")
+                                            .source("192.168.0.1")
+                                            .destination("192.168.0.254")
+                                            .sourcePort(32768)
+                                            .destinationPort(443)
+                                            .build()
+                                        .build(), beginEx());
+    }
+
+    @Test
+    public void shouldDecodeTcp6() throws Exception
+    {
+        DirectBuffer header = header("21" + "21" + "0024" +
+                "fd123456789a00010000000000000001" +
+                "fd123456789a000100000000000000fe" +
+                "8000" + "01bb");
+
+        assertEquals(52, decode(header));
+        assertArrayEquals(ProxyFunctions.beginEx()
+                                        .typeId(0x01)
+                                        .addressInet6()
+                                            .protocol("stream")
+                                            .source("fd12:3456:789a:1::1")
+                                            .destination("fd12:3456:789a:1::fe")
+                                            .sourcePort(32768)
+                                            .destinationPort(443)
+                                            .build()
+                                        .build(), beginEx());
+    }
+
+    @Test
+    public void shouldDecodeSockStream() throws Exception
+    {
+        DirectBuffer header = header("21" + "31" + "00d8" +
+                paddedHex("source-123456789abcd", 108) +
+                paddedHex("destination-12345678", 108));
+
+        assertEquals(232, decode(header));
+        assertArrayEquals(ProxyFunctions.beginEx()
+                                        .typeId(0x01)
+                                        .addressUnix()
+                                            .protocol("stream")
+                                            .source("source-123456789abcd")
+                                            .destination("destination-12345678")
+                                            .build()
+                                        .build(), beginEx());
+    }
+
+    @Test
+    public void shouldDecodeTcp4WithInfos() throws Exception
+    {
+        DirectBuffer header = header("21" + "11" + "004f" + TCP4_ADDRESS +
+                "010004" + hex("echo") +
+                "02000b" + hex("example.com") +
+                "030004" + "2391b0d7" +
+                "04000400000000" +
+                "050004" + "12345678" +
+                "300007" + hex("example") +
+                "f0000c" + hex("experimental"));
+
+        assertEquals(95, decode(header));
+        assertArrayEquals(ProxyFunctions.beginEx()
+                                        .typeId(0x01)
+                                        .addressInet4()
+                                            .protocol("stream")
+                                            .source("192.168.0.1")
+                                            .destination("192.168.0.254")
+                                            .sourcePort(32768)
+                                            .destinationPort(443)
+                                            .build()
+                                        .info()
+                                            .alpn("echo")
+                                            .authority("example.com")
+                                            .identity(fromHex("12345678"))
+                                            .namespace("example")
+                                            .build()
+                                        .build(), beginEx());
+    }
+
+    @Test
+    public void shouldDecodeTcp4WithSslClientCertificate() throws Exception
+    {
+        DirectBuffer header = header("21" + "11" + "006c" + TCP4_ADDRESS +
+                "20005d" + "07" + "00000000" +
+                "210007" + hex("TLSv1.3") +
+                "23001b" + hex("ECDHE-RSA-AES128-GCM-SHA256") +
+                "240006" + hex("SHA256") +
+                "22000b" + hex("name@domain") +
+                "250007" + hex("RSA2048") +
+                "f0000c" + hex("experimental"));
+
+        assertEquals(124, decode(header));
+        assertArrayEquals(ProxyFunctions.beginEx()
+                                        .typeId(0x01)
+                                        .addressInet4()
+                                            .protocol("stream")
+                                            .source("192.168.0.1")
+                                            .destination("192.168.0.254")
+                                            .sourcePort(32768)
+                                            .destinationPort(443)
+                                            .build()
+                                        .info()
+                                            .secure()
+                                                .client(7, 0)
+                                                .protocol("TLSv1.3")
+                                                .cipher("ECDHE-RSA-AES128-GCM-SHA256")
+                                                .signature("SHA256")
+                                                .name("name@domain")
+                                                .key("RSA2048")
+                                                .build()
+                                            .build()
+                                        .build(), beginEx());
+    }
+
+    @Test
+    public void shouldDecodeAtOffset() throws Exception
+    {
+        DirectBuffer header = header("21" + "11" + "000c" + TCP4_ADDRESS);
+        MutableDirectBuffer buffer = new UnsafeBuffer(new byte[header.capacity() + 8]);
+        buffer.putBytes(5, header, 0, header.capacity());
+
+        beginExRW.wrap(writeBuffer, 0, writeBuffer.capacity()).typeId(0x01);
+
+        assertEquals(28, decoder.decode(buffer, 5, 5 + header.capacity(), beginExRW));
+        assertNull(decoder.reject());
+    }
+
+    @Test
+    public void shouldUnderflowUntilHeaderComplete() throws Exception
+    {
+        DirectBuffer header = header("21" + "11" + "0013" + TCP4_ADDRESS + "010004" + hex("echo"));
+
+        for (int limit = 0; limit < header.capacity(); limit++)
+        {
+            beginExRW.wrap(writeBuffer, 0, writeBuffer.capacity()).typeId(0x01);
+
+            assertEquals(DECODE_UNDERFLOW, decoder.decode(header, 0, limit, beginExRW));
+            assertNull(decoder.reject());
+        }
+
+        assertEquals(header.capacity(), decode(header));
+    }
+
+    @Test
+    public void shouldRejectHeaderMismatch() throws Exception
+    {
+        assertRejected(HEADER_MISMATCH, new UnsafeBuffer(fromHex("0d0a0d0a010d0a515549540a")));
+    }
+
+    @Test
+    public void shouldRejectPartialHeaderMismatch() throws Exception
+    {
+        assertRejected(HEADER_MISMATCH, new UnsafeBuffer(fromHex("0d0a0d0a01")));
+    }
+
+    @Test
+    public void shouldRejectHeaderOverflowBeforeTlvs() throws Exception
+    {
+        ProxyV2Decoder decoder = new ProxyV2Decoder(1024);
+        DirectBuffer header = header("21" + "11" + "03f1");
+
+        beginExRW.wrap(writeBuffer, 0, writeBuffer.capacity()).typeId(0x01);
+
+        assertEquals(DECODE_REJECTED, decoder.decode(header, 0, header.capacity(), beginExRW));
+        assertEquals(HEADER_OVERFLOW, decoder.reject());
+    }
+
+    @Test
+    public void shouldUnderflowUntilMaximumHeaderSize() throws Exception
+    {
+        ProxyV2Decoder decoder = new ProxyV2Decoder(1024);
+        DirectBuffer header = header("21" + "11" + "03f0");
+
+        beginExRW.wrap(writeBuffer, 0, writeBuffer.capacity()).typeId(0x01);
+
+        assertEquals(DECODE_UNDERFLOW, decoder.decode(header, 0, header.capacity(), beginExRW));
+        assertNull(decoder.reject());
+    }
+
+    @Test
+    public void shouldRejectHeaderVersionMismatch() throws Exception
+    {
+        assertRejected(VERSION_MISMATCH, header("10"));
+    }
+
+    @Test
+    public void shouldRejectCommandMismatch() throws Exception
+    {
+        assertRejected(COMMAND_MISMATCH, header("22"));
+    }
+
+    @Test
+    public void shouldRejectAddressFamilyMismatch() throws Exception
+    {
+        assertRejected(ADDRESS_FAMILY_MISMATCH, header("21" + "40"));
+    }
+
+    @Test
+    public void shouldRejectAddressProtocolMismatch() throws Exception
+    {
+        assertRejected(ADDRESS_FAMILY_MISMATCH, header("21" + "13"));
+    }
+
+    @Test
+    public void shouldRejectAddressProtocolUnspecified() throws Exception
+    {
+        assertRejected(ADDRESS_FAMILY_MISMATCH, header("21" + "10"));
+    }
+
+    @Test
+    public void shouldRejectAddressFamilyUnspecified() throws Exception
+    {
+        assertRejected(ADDRESS_FAMILY_MISMATCH, header("21" + "01"));
+    }
+
+    @Test
+    public void shouldRejectTcp4Underflow() throws Exception
+    {
+        assertRejected(ADDRESS_UNDERFLOW, header("21" + "11" + "000b"));
+    }
+
+    @Test
+    public void shouldRejectTcp6Underflow() throws Exception
+    {
+        assertRejected(ADDRESS_UNDERFLOW, header("21" + "21" + "0023"));
+    }
+
+    @Test
+    public void shouldRejectSockStreamUnderflow() throws Exception
+    {
+        assertRejected(ADDRESS_UNDERFLOW, header("21" + "31" + "00d7"));
+    }
+
+    @Test
+    public void shouldRejectTlvHeaderUnderflow() throws Exception
+    {
+        assertRejected(TLV_UNDERFLOW, header("21" + "11" + "000e" + TCP4_ADDRESS + "0100"));
+    }
+
+    @Test
+    public void shouldRejectTlvValueUnderflow() throws Exception
+    {
+        assertRejected(TLV_UNDERFLOW, header("21" + "11" + "0012" + TCP4_ADDRESS + "010004" + "616263"));
+    }
+
+    @Test
+    public void shouldRejectAlpnOverflow() throws Exception
+    {
+        assertRejected(TLV_OVERFLOW, header("21" + "11" + "010e" + TCP4_ADDRESS + "0100ff" + repeatHex("61", 255)));
+    }
+
+    @Test
+    public void shouldDecodeMaximumAlpn() throws Exception
+    {
+        DirectBuffer header = header("21" + "11" + "010d" + TCP4_ADDRESS + "0100fe" + repeatHex("61", 254));
+
+        assertEquals(285, decode(header));
+    }
+
+    @Test
+    public void shouldDecodeMaximumHeaderWithNoop() throws Exception
+    {
+        DirectBuffer header = header("21" + "11" + "ffff" + TCP4_ADDRESS + "04fff0" + repeatHex("00", 65520));
+
+        beginExRW.wrap(writeBuffer, 0, writeBuffer.capacity()).typeId(0x01);
+
+        assertEquals(DECODE_UNDERFLOW, decoder.decode(header, 0, header.capacity() - 1, beginExRW));
+        assertEquals(65551, decode(header));
+        assertArrayEquals(ProxyFunctions.beginEx()
+                                        .typeId(0x01)
+                                        .addressInet4()
+                                            .protocol("stream")
+                                            .source("192.168.0.1")
+                                            .destination("192.168.0.254")
+                                            .sourcePort(32768)
+                                            .destinationPort(443)
+                                            .build()
+                                        .build(), beginEx());
+    }
+
+    @Test
+    public void shouldDecodeTcp4WithCrc32c() throws Exception
+    {
+        DirectBuffer header = header("21" + "11" + "0013" + TCP4_ADDRESS + "030004" + "994db946");
+
+        assertEquals(35, decode(header));
+    }
+
+    @Test
+    public void shouldDecodeTcp4WithCrc32cAtOffset() throws Exception
+    {
+        DirectBuffer header = header("21" + "11" + "0013" + TCP4_ADDRESS + "030004" + "994db946");
+        MutableDirectBuffer buffer = new UnsafeBuffer(new byte[header.capacity() + 8]);
+        buffer.putBytes(5, header, 0, header.capacity());
+
+        beginExRW.wrap(writeBuffer, 0, writeBuffer.capacity()).typeId(0x01);
+
+        assertEquals(35, decoder.decode(buffer, 5, 5 + header.capacity(), beginExRW));
+        assertNull(decoder.reject());
+    }
+
+    @Test
+    public void shouldRejectTcp4WithCrc32cMismatch() throws Exception
+    {
+        assertRejected(CRC32C_MISMATCH, header("21" + "11" + "0013" + TCP4_ADDRESS + "030004" + "ff16d3da"));
+    }
+
+    @Test
+    public void shouldRejectTcp4WithCrc32cOverflow() throws Exception
+    {
+        assertRejected(CRC32C_OVERFLOW, header("21" + "11" + "0014" + TCP4_ADDRESS + "030005" + "0102030405"));
+    }
+
+    @Test
+    public void shouldRejectTcp4WithCrc32cUnderflow() throws Exception
+    {
+        assertRejected(CRC32C_UNDERFLOW, header("21" + "11" + "0012" + TCP4_ADDRESS + "030003" + "010203"));
+    }
+
+    @Test
+    public void shouldRejectTcp4WithSslUnderflow() throws Exception
+    {
+        assertRejected(SSL_UNDERFLOW, header("21" + "11" + "0013" + TCP4_ADDRESS + "200004" + hex("oops")));
+    }
+
+    @Test
+    public void shouldRejectTcp4WithSslTlvHeaderUnderflow() throws Exception
+    {
+        assertRejected(SSL_UNDERFLOW, header("21" + "11" + "0016" + TCP4_ADDRESS + "200007" + "0100000000" + "2100"));
+    }
+
+    @Test
+    public void shouldRejectTcp4WithSslTlvValueUnderflow() throws Exception
+    {
+        assertRejected(SSL_UNDERFLOW, header("21" + "11" + "001a" + TCP4_ADDRESS +
+                "20000b" + "0100000000" + "210007" + "544c53"));
+    }
+
+    @Test
+    public void shouldRejectTcp4WithSslCipherOverflow() throws Exception
+    {
+        assertRejected(TLV_OVERFLOW, header("21" + "11" + "0116" + TCP4_ADDRESS +
+                "200107" + "0100000000" + "2300ff" + repeatHex("61", 255)));
+    }
+
+    private int decode(
+        DirectBuffer header)
+    {
+        beginExRW.wrap(writeBuffer, 0, writeBuffer.capacity()).typeId(0x01);
+
+        final int decoded = decoder.decode(header, 0, header.capacity(), beginExRW);
+        assertNull(decoder.reject());
+
+        return decoded;
+    }
+
+    private byte[] beginEx()
+    {
+        final ProxyBeginExFW beginEx = beginExRW.build();
+        final byte[] bytes = new byte[beginEx.sizeof()];
+        beginEx.buffer().getBytes(beginEx.offset(), bytes);
+        return bytes;
+    }
+
+    private void assertRejected(
+        ProxyV2Reject reject,
+        DirectBuffer header)
+    {
+        beginExRW.wrap(writeBuffer, 0, writeBuffer.capacity()).typeId(0x01);
+
+        assertEquals(DECODE_REJECTED, decoder.decode(header, 0, header.capacity(), beginExRW));
+        assertEquals(reject, decoder.reject());
+    }
+
+    private static DirectBuffer header(
+        String hex)
+    {
+        return new UnsafeBuffer(fromHex(SIGNATURE + hex));
+    }
+
+    private static String hex(
+        String text)
+    {
+        final StringBuilder hex = new StringBuilder();
+        for (char ch : text.toCharArray())
+        {
+            hex.append(String.format("%02x", (int) ch));
+        }
+        return hex.toString();
+    }
+
+    private static String paddedHex(
+        String text,
+        int length)
+    {
+        return hex(text) + repeatHex("00", length - text.length());
+    }
+
+    private static String repeatHex(
+        String hex,
+        int count)
+    {
+        final String[] repeated = new String[count];
+        Arrays.fill(repeated, hex);
+        return String.join("", repeated);
+    }
+}
@@ -0,0 +1,616 @@
+/**
+ * Copyright 2016-2021 The Reaktivity Project
+ *
+ * The Reaktivity Project licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package org.reaktivity.specification.nukleus.proxy.internal;
+
+import static org.agrona.BitUtil.fromHex;
+import static org.agrona.BitUtil.toHex;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.reaktivity.specification.nukleus.proxy.internal.ProxyV2Encoder.ENCODE_REJECTED;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import org.agrona.BufferUtil;
+import org.agrona.MutableDirectBuffer;
+import org.agrona.concurrent.UnsafeBuffer;
+import org.junit.Test;
+import org.reaktivity.specification.nukleus.proxy.internal.types.OctetsFW;
+import org.reaktivity.specification.nukleus.proxy.internal.types.stream.ProxyBeginExFW;
+
+public class ProxyV2EncoderTest
+{
+    private static final String SIGNATURE = "0d0a0d0a000d0a515549540a";
+    private static final String TCP4_ADDRESS = "c0a80001" + "c0a800fe" + "8000" + "01bb";
+
+    private final ProxyV2Encoder encoder = new ProxyV2Encoder();
+    private final ProxyBeginExFW beginExRO = new ProxyBeginExFW();
+
+    @Test
+    public void shouldEncodeLocal() throws Exception
+    {
+        ProxyBeginExFW beginEx = beginEx(ProxyFunctions.beginEx()
+                                                       .typeId(0x01)
+                                                       .addressNone()
+                                                           .build()
+                                                       .build());
+
+        assertEncoded(SIGNATURE + "20" + "00" + "0000", beginEx);
+    }
+
+    @Test
+    public void shouldEncodeLocalWithoutCrc32c() throws Exception
+    {
+        ProxyBeginExFW beginEx = beginEx(ProxyFunctions.beginEx()
+                                                       .typeId(0x01)
+                                                       .addressNone()
+                                                           .build()
+                                                       .build());
+
+        encoder.crc32c(true);
+
+        assertEncoded(SIGNATURE + "20" + "00" + "0000", beginEx);
+    }
+
+    @Test
+    public void shouldEncodeProxyUnspecifiedWithInfos() throws Exception
+    {
+        ProxyBeginExFW beginEx = beginEx(ProxyFunctions.beginEx()
+                                                       .typeId(0x01)
+                                                       .addressNone()
+                                                           .build()
+                                                       .info()
+                                                           .alpn("echo")
+                                                           .build()
+                                                       .build());
+
+        assertEncoded(SIGNATURE + "21" + "00" + "0007" + "010004" + hex("echo"), beginEx);
+    }
+
+    @Test
+    public void shouldEncodeTcp4() throws Exception
+    {
+        ProxyBeginExFW beginEx = beginEx(ProxyFunctions.beginEx()
+                                                       .typeId(0x01)
+                                                       .addressInet4()
+                                                           .protocol("stream")
+                                                           .source("192.168.0.1")
+                                                           .destination("192.168.0.254")
+                                                           .sourcePort(32768)
+                                                           .destinationPort(443)
+                                                           .build()
+                                                       .build());
+
+        assertEncoded(SIGNATURE + "21" + "11" + "000c" + TCP4_ADDRESS, beginEx);
+    }
+
+    @Test
+    public void shouldEncodeUdp4() throws Exception
+    {
+        ProxyBeginExFW beginEx = beginEx(ProxyFunctions.beginEx()
+                                                       .typeId(0x01)
+                                                       .addressInet4()
+                                                           .protocol("datagram")
+                                                           .source("192.168.0.1")
+                                                           .destination("192.168.0.254")
+                                                           .sourcePort(32768)
+                                                           .destinationPort(443)
+                                                           .build()
+                                                       .build());
+
+        assertEncoded(SIGNATURE + "21" + "12" + "000c" + TCP4_ADDRESS, beginEx);
+    }
+
+    @Test
+    public void shouldEncodeTcp6() throws Exception
+    {
+        ProxyBeginExFW beginEx = beginEx(ProxyFunctions.beginEx()
+                                                       .typeId(0x01)
+                                                       .addressInet6()
+                                                           .protocol("stream")
+                                                           .source("fd12:3456:789a:1::1")
+                                                           .destination("fd12:3456:789a:1::fe")
+                                                           .sourcePort(32768)
+                                                           .destinationPort(443)
+                                                           .build()
+                                                       .build());
+
+        assertEncoded(SIGNATURE + "21" + "21" + "0024" +
+                "fd123456789a00010000000000000001" +
+                "fd123456789a000100000000000000fe" +
+                "8000" + "01bb", beginEx);
+    }
+
+    @Test
+    public void shouldEncodeSockStream() throws Exception
+    {
+        ProxyBeginExFW beginEx = beginEx(ProxyFunctions.beginEx()
+                                                       .typeId(0x01)
+                                                       .addressUnix()
+                                                           .protocol("stream")
+                                                           .source("source-123456789abcd")
+                                                           .destination("destination-12345678")
+                                                           .build()
+                                                       .build());
+
+        assertEncoded(SIGNATURE + "21" + "31" + "00d8" +
+                paddedHex("source-123456789abcd", 108) +
+                paddedHex("destination-12345678", 108), beginEx);
+    }
+
+    @Test
+    public void shouldEncodeSockStreamIntoDirtyBuffer() throws Exception
+    {
+        ProxyBeginExFW beginEx = beginEx(ProxyFunctions.beginEx()
+                                                       .typeId(0x01)
+                                                       .addressUnix()
+                                                           .protocol("stream")
+                                                           .source("source")
+                                                           .destination("destination")
+                                                           .build()
+                                                       .build());
+
+        MutableDirectBuffer buffer = new UnsafeBuffer(new byte[1024]);
+        buffer.setMemory(0, buffer.capacity(), (byte) 0xff);
+
+        int encoded = encoder.encode(beginEx, buffer, 0, buffer.capacity());
+
+        assertEquals(SIGNATURE + "21" + "31" + "00d8" +
+                paddedHex("source", 108) +
+                paddedHex("destination", 108), toHex(bytes(buffer, 0, encoded)));
+    }
+
+    @Test
+    public void shouldZeroPadShorterUnixPath() throws Exception
+    {
+        MutableDirectBuffer buffer = new UnsafeBuffer(new byte[112]);
+        buffer.setMemory(0, buffer.capacity(), (byte) 0xff);
+
+        OctetsFW path = new OctetsFW().wrap(new UnsafeBuffer("path".getBytes(StandardCharsets.US_ASCII)), 0, 4);
+
+        assertTrue(ProxyV2Encoder.encodeUnixPath(buffer, 2, path));
+        assertEquals("ffff" + paddedHex("path", 108) + "ffff", toHex(bytes(buffer, 0, buffer.capacity())));
+    }
+
+    @Test
+    public void shouldRejectUnixPathOverflow() throws Exception
+    {
+        MutableDirectBuffer buffer = new UnsafeBuffer(new byte[112]);
+        buffer.setMemory(0, buffer.capacity(), (byte) 0xff);
+
+        OctetsFW path = new OctetsFW().wrap(new UnsafeBuffer(new byte[109]), 0, 109);
+
+        assertFalse(ProxyV2Encoder.encodeUnixPath(buffer, 2, path));
+        assertEquals("ff".repeat(112), toHex(bytes(buffer, 0, buffer.capacity())));
+    }
+
+    @Test
+    public void shouldEncodeTcp4WithInfos() throws Exception
+    {
+        ProxyBeginExFW beginEx = beginEx(ProxyFunctions.beginEx()
+                                                       .typeId(0x01)
+                                                       .addressInet4()
+                                                           .protocol("stream")
+                                                           .source("192.168.0.1")
+                                                           .destination("192.168.0.254")
+                                                           .sourcePort(32768)
+                                                           .destinationPort(443)
+                                                           .build()
+                                                       .info()
+                                                           .alpn("echo")
+                                                           .authority("example.com")
+                                                           .identity(fromHex("12345678"))
+                                                           .namespace("example")
+                                                           .build()
+                                                       .build());
+
+        assertEncoded(SIGNATURE + "21" + "11" + "0032" + TCP4_ADDRESS +
+                "010004" + hex("echo") +
+                "02000b" + hex("example.com") +
+                "050004" + "12345678" +
+                "300007" + hex("example"), beginEx);
+    }
+
+    @Test
+    public void shouldEncodeTcp4WithSsl() throws Exception
+    {
+        ProxyBeginExFW beginEx = beginEx(ProxyFunctions.beginEx()
+                                                       .typeId(0x01)
+                                                       .addressInet4()
+                                                           .protocol("stream")
+                                                           .source("192.168.0.1")
+                                                           .destination("192.168.0.254")
+                                                           .sourcePort(32768)
+                                                           .destinationPort(443)
+                                                           .build()
+                                                       .info()
+                                                           .secure()
+                                                               .protocol("TLSv1.3")
+                                                               .cipher("ECDHE-RSA-AES128-GCM-SHA256")
+                                                               .signature("SHA256")
+                                                               .build()
+                                                           .build()
+                                                       .build());
+
+        assertEncoded(SIGNATURE + "21" + "11" + "0045" + TCP4_ADDRESS +
+                "200036" + "01" + "ffffffff" +
+                "210007" + hex("TLSv1.3") +
+                "23001b" + hex("ECDHE-RSA-AES128-GCM-SHA256") +
+                "240006" + hex("SHA256"), beginEx);
+    }
+
+    @Test
+    public void shouldEncodeTcp4WithSslClientCertificate() throws Exception
+    {
+        ProxyBeginExFW beginEx = beginEx(ProxyFunctions.beginEx()
+                                                       .typeId(0x01)
+                                                       .addressInet4()
+                                                           .protocol("stream")
+                                                           .source("192.168.0.1")
+                                                           .destination("192.168.0.254")
+                                                           .sourcePort(32768)
+                                                           .destinationPort(443)
+                                                           .build()
+                                                       .info()
+                                                           .alpn("echo")
+                                                           .secure()
+                                                               .protocol("TLSv1.3")
+                                                               .cipher("ECDHE-RSA-AES128-GCM-SHA256")
+                                                               .signature("SHA256")
+                                                               .name("name@domain")
+                                                               .key("RSA2048")
+                                                               .build()
+                                                           .build()
+                                                       .build());
+
+        assertEncoded(SIGNATURE + "21" + "11" + "0064" + TCP4_ADDRESS +
+                "010004" + hex("echo") +
+                "20004e" + "07" + "00000000" +
+                "210007" + hex("TLSv1.3") +
+                "23001b" + hex("ECDHE-RSA-AES128-GCM-SHA256") +
+                "240006" + hex("SHA256") +
+                "22000b" + hex("name@domain") +
+                "250007" + hex("RSA2048"), beginEx);
+    }
+
+    @Test
+    public void shouldEncodeTcp4WithSslClientKey() throws Exception
+    {
+        ProxyBeginExFW beginEx = beginEx(ProxyFunctions.beginEx()
+                                                       .typeId(0x01)
+                                                       .addressInet4()
+                                                           .protocol("stream")
+                                                           .source("192.168.0.1")
+                                                           .destination("192.168.0.254")
+                                                           .sourcePort(32768)
+                                                           .destinationPort(443)
+                                                           .build()
+                                                       .info()
+                                                           .secure()
+                                                               .key("RSA2048")
+                                                               .build()
+                                                           .build()
+                                                       .build());
+
+        assertEncoded(SIGNATURE + "21" + "11" + "001e" + TCP4_ADDRESS +
+                "20000f" + "07" + "00000000" +
+                "250007" + hex("RSA2048"), beginEx);
+    }
+
+    @Test
+    public void shouldEncodeTcp4WithSslClientFlags() throws Exception
+    {
+        ProxyBeginExFW beginEx = beginEx(ProxyFunctions.beginEx()
+                                                       .typeId(0x01)
+                                                       .addressInet4()
+                                                           .protocol("stream")
+                                                           .source("192.168.0.1")
+                                                           .destination("192.168.0.254")
+                                                           .sourcePort(32768)
+                                                           .destinationPort(443)
+                                                           .build()
+                                                       .info()
+                                                           .secure()
+                                                               .client(3, 10)
+                                                               .name("name@domain")
+                                                               .build()
+                                                           .build()
+                                                       .build());
+
+        assertEncoded(SIGNATURE + "21" + "11" + "0022" + TCP4_ADDRESS +
+                "200013" + "03" + "0000000a" +
+                "22000b" + hex("name@domain"), beginEx);
+    }
+
+    @Test
+    public void shouldEncodeTcp4WithCrc32c() throws Exception
+    {
+        encoder.crc32c(true);
+
+        assertEncoded(SIGNATURE + "21" + "11" + "0013" + TCP4_ADDRESS + "030004" + "994db946", tcp4());
+    }
+
+    @Test
+    public void shouldEncodeTcp4WithCrc32cIntoByteBuffer() throws Exception
+    {
+        MutableDirectBuffer buffer = new UnsafeBuffer(ByteBuffer.allocateDirect(64));
+
+        encoder.crc32c(true);
+
+        assertEquals(35, encoder.encode(tcp4(), buffer, 1, buffer.capacity()));
+        assertEquals("994db946", toHex(bytes(buffer, 32, 4)));
+    }
+
+    @Test
+    public void shouldEncodeTcp4WithCrc32cIntoAddress() throws Exception
+    {
+        ByteBuffer byteBuf = ByteBuffer.allocateDirect(64);
+        MutableDirectBuffer buffer = new UnsafeBuffer(BufferUtil.address(byteBuf), byteBuf.capacity());
+
+        encoder.crc32c(true);
+
+        assertEquals(35, encoder.encode(tcp4(), buffer, 1, buffer.capacity()));
+        assertEquals("994db946", toHex(bytes(buffer, 32, 4)));
+    }
+
+    @Test
+    public void shouldEncodeAtOffset() throws Exception
+    {
+        MutableDirectBuffer buffer = new UnsafeBuffer(new byte[64]);
+
+        assertEquals(28, encoder.encode(tcp4(), buffer, 5, 33));
+        assertEquals(SIGNATURE + "21" + "11" + "000c" + TCP4_ADDRESS, toHex(bytes(buffer, 5, 28)));
+    }
+
+    @Test
+    public void shouldRoundTripWithDecoder() throws Exception
+    {
+        byte[] expected = ProxyFunctions.beginEx()
+                                        .typeId(0x01)
+                                        .addressInet6()
+                                            .protocol("datagram")
+                                            .source("fd12:3456:789a:1::1")
+                                            .destination("fd12:3456:789a:1::fe")
+                                            .sourcePort(32768)
+                                            .destinationPort(443)
+                                            .build()
+                                        .info()
+                                            .alpn("echo")
+                                            .authority("example.com")
+                                            .identity(fromHex("12345678"))
+                                            .namespace("example")
+                                            .secure()
+                                                .client(1, -1)
+                                                .protocol("TLSv1.3")
+                                                .cipher("ECDHE-RSA-AES128-GCM-SHA256")
+                                                .build()
+                                            .build()
+                                        .build();
+
+        MutableDirectBuffer header = new UnsafeBuffer(new byte[1024]);
+        int encoded = encoder.crc32c(true).encode(beginEx(expected), header, 0, header.capacity());
+
+        MutableDirectBuffer writeBuffer = new UnsafeBuffer(new byte[1024]);
+        ProxyBeginExFW.Builder beginExRW = new ProxyBeginExFW.Builder().wrap(writeBuffer, 0, writeBuffer.capacity())
+                                                                         .typeId(0x01);
+
+        assertEquals(encoded, new ProxyV2Decoder().decode(header, 0, encoded, beginExRW));
+
+        ProxyBeginExFW decoded = beginExRW.build();
+        assertArrayEquals(expected, bytes(writeBuffer, 0, decoded.sizeof()));
+    }
+
+    @Test
+    public void shouldRejectInetHostname() throws Exception
+    {
+        ProxyBeginExFW beginEx = beginEx(ProxyFunctions.beginEx()
+                                                       .typeId(0x01)
+                                                       .addressInet()
+                                                           .protocol("stream")
+                                                           .source("192.168.0.1")
+                                                           .destination("example.com")
+                                                           .sourcePort(32768)
+                                                           .destinationPort(443)
+                                                           .build()
+                                                       .build());
+
+        assertRejected(beginEx, 1024);
+    }
+
+    @Test
+    public void shouldRejectHeaderOverflow() throws Exception
+    {
+        assertRejected(tcp4(), 15);
+    }
+
+    @Test
+    public void shouldRejectAddressOverflow() throws Exception
+    {
+        assertRejected(tcp4(), 27);
+    }
+
+    @Test
+    public void shouldRejectTcp6AddressOverflow() throws Exception
+    {
+        ProxyBeginExFW beginEx = beginEx(ProxyFunctions.beginEx()
+                                                       .typeId(0x01)
+                                                       .addressInet6()
+                                                           .protocol("stream")
+                                                           .source("fd12:3456:789a:1::1")
+                                                           .destination("fd12:3456:789a:1::fe")
+                                                           .sourcePort(32768)
+                                                           .destinationPort(443)
+                                                           .build()
+                                                       .build());
+
+        assertRejected(beginEx, 51);
+    }
+
+    @Test
+    public void shouldRejectSockStreamAddressOverflow() throws Exception
+    {
+        ProxyBeginExFW beginEx = beginEx(ProxyFunctions.beginEx()
+                                                       .typeId(0x01)
+                                                       .addressUnix()
+                                                           .protocol("stream")
+                                                           .source("source-123456789abcd")
+                                                           .destination("destination-12345678")
+                                                           .build()
+                                                       .build());
+
+        assertRejected(beginEx, 231);
+    }
+
+    @Test
+    public void shouldRejectTlvOverflow() throws Exception
+    {
+        ProxyBeginExFW beginEx = beginEx(ProxyFunctions.beginEx()
+                                                       .typeId(0x01)
+                                                       .addressInet4()
+                                                           .protocol("stream")
+                                                           .source("192.168.0.1")
+                                                           .destination("192.168.0.254")
+                                                           .sourcePort(32768)
+                                                           .destinationPort(443)
+                                                           .build()
+                                                       .info()
+                                                           .alpn("echo")
+                                                           .build()
+                                                       .build());
+
+        assertRejected(beginEx, 34);
+    }
+
+    @Test
+    public void shouldRejectSslOverflow() throws Exception
+    {
+        ProxyBeginExFW beginEx = beginEx(ProxyFunctions.beginEx()
+                                                       .typeId(0x01)
+                                                       .addressInet4()
+                                                           .protocol("stream")
+                                                           .source("192.168.0.1")
+                                                           .destination("192.168.0.254")
+                                                           .sourcePort(32768)
+                                                           .destinationPort(443)
+                                                           .build()
+                                                       .info()
+                                                           .secure()
+                                                               .protocol("TLSv1.3")
+                                                               .build()
+                                                           .build()
+                                                       .build());
+
+        assertRejected(beginEx, 35);
+    }
+
+    @Test
+    public void shouldRejectCrc32cOverflow() throws Exception
+    {
+        encoder.crc32c(true);
+
+        assertRejected(tcp4(), 34);
+    }
+
+    @Test
+    public void shouldRejectHeaderLengthOverflow() throws Exception
+    {
+        char[] authority = new char[40000];
+        Arrays.fill(authority, 'a');
+
+        byte[] bytes = ProxyFunctions.beginEx()
+                                     .typeId(0x01)
+                                     .addressNone()
+                                         .build()
+                                     .build();
+
+        MutableDirectBuffer buffer = new UnsafeBuffer(new byte[1024 * 128]);
+        ProxyBeginExFW beginEx = new ProxyBeginExFW.Builder().wrap(buffer, 0, buffer.capacity())
+                                                             .typeId(0x01)
+                                                             .address(new ProxyBeginExFW().wrap(new UnsafeBuffer(bytes), 0,
+                                                                     bytes.length).address())
+                                                             .infosItem(i -> i.authority(new String(authority)))
+                                                             .infosItem(i -> i.authority(new String(authority)))
+                                                             .build();
+
+        assertRejected(beginEx, 1024 * 128);
+    }
+
+    private ProxyBeginExFW tcp4() throws Exception
+    {
+        return beginEx(ProxyFunctions.beginEx()
+                                     .typeId(0x01)
+                                     .addressInet4()
+                                         .protocol("stream")
+                                         .source("192.168.0.1")
+                                         .destination("192.168.0.254")
+                                         .sourcePort(32768)
+                                         .destinationPort(443)
+                                         .build()
+                                     .build());
+    }
+
+    private ProxyBeginExFW beginEx(
+        byte[] bytes)
+    {
+        return beginExRO.wrap(new UnsafeBuffer(bytes), 0, bytes.length);
+    }
+
+    private void assertEncoded(
+        String expected,
+        ProxyBeginExFW beginEx)
+    {
+        MutableDirectBuffer buffer = new UnsafeBuffer(new byte[1024]);
+
+        int encoded = encoder.encode(beginEx, buffer, 0, buffer.capacity());
+
+        assertEquals(expected, toHex(bytes(buffer, 0, encoded)));
+    }
+
+    private void assertRejected(
+        ProxyBeginExFW beginEx,
+        int maxLimit)
+    {
+        MutableDirectBuffer buffer = new UnsafeBuffer(new byte[maxLimit]);
+
+        assertEquals(ENCODE_REJECTED, encoder.encode(beginEx, buffer, 0, maxLimit));
+    }
+
+    private static byte[] bytes(
+        MutableDirectBuffer buffer,
+        int offset,
+        int length)
+    {
+        byte[] bytes = new byte[length];
+        buffer.getBytes(offset, bytes);
+        return bytes;
+    }
+
+    private static String hex(
+        String text)
+    {
+        return toHex(text.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    private static String paddedHex(
+        String text,
+        int length)
+    {
+        return toHex(Arrays.copyOf(text.getBytes(StandardCharsets.US_ASCII), length));
+    }
+}
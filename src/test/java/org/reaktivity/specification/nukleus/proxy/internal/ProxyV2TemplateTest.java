@@ -0,0 +1,308 @@
+/**
+ * Copyright 2016-2021 The Reaktivity Project
+ *
+ * The Reaktivity Project licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package org.reaktivity.specification.nukleus.proxy.internal;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.reaktivity.specification.nukleus.proxy.internal.ProxyV2Encoder.ENCODE_REJECTED;
+
+import java.util.Arrays;
+
+import org.agrona.MutableDirectBuffer;
+import org.agrona.concurrent.UnsafeBuffer;
+import org.junit.Test;
+import org.reaktivity.specification.nukleus.proxy.internal.types.stream.ProxyBeginExFW;
+
+public class ProxyV2TemplateTest
+{
+    private final ProxyV2Encoder encoder = new ProxyV2Encoder();
+    private final ProxyV2Template template = new ProxyV2Template(encoder, new UnsafeBuffer(new byte[1024]));
+
+    @Test
+    public void shouldEncodeTcp4SameAsFreshEncode() throws Exception
+    {
+        assertEquals(45, template.prepare(tcp4("192.168.0.1", 32768)));
+
+        for (int port = 32768; port < 32868; port++)
+        {
+            assertTemplated(tcp4(String.format("192.168.%d.%d", port >> 8 & 0xff, port & 0xff), port));
+        }
+    }
+
+    @Test
+    public void shouldEncodeTcp4WithCrc32cSameAsFreshEncode() throws Exception
+    {
+        encoder.crc32c(true);
+
+        assertEquals(52, template.prepare(tcp4("192.168.0.1", 32768)));
+
+        assertTemplated(tcp4("192.168.0.2", 32769));
+        assertTemplated(tcp4("10.0.0.1", 40000));
+    }
+
+    @Test
+    public void shouldEncodeTcp6SameAsFreshEncode() throws Exception
+    {
+        encoder.crc32c(true);
+
+        assertEquals(66, template.prepare(tcp6("fd12:3456:789a:1::1", 32768)));
+
+        assertTemplated(tcp6("fd12:3456:789a:1::2", 32769));
+    }
+
+    @Test
+    public void shouldEncodeSockStreamSameAsFreshEncode() throws Exception
+    {
+        assertEquals(232, template.prepare(sockStream("source-1")));
+
+        assertTemplated(sockStream("source-2"));
+    }
+
+    @Test
+    public void shouldEncodeSockStreamWithShorterPathSameAsFreshEncode() throws Exception
+    {
+        assertEquals(232, template.prepare(sockStream("source-with-a-longer-path")));
+
+        assertTemplated(sockStream("s"));
+    }
+
+    @Test
+    public void shouldEncodeLocalSameAsFreshEncode() throws Exception
+    {
+        encoder.crc32c(true);
+
+        assertEquals(16, template.prepare(local()));
+
+        assertTemplated(local());
+    }
+
+    @Test
+    public void shouldRejectFamilyMismatch() throws Exception
+    {
+        template.prepare(tcp4("192.168.0.1", 32768));
+
+        assertRejected(tcp6("fd12:3456:789a:1::1", 32768), 1024);
+    }
+
+    @Test
+    public void shouldRejectProtocolMismatch() throws Exception
+    {
+        template.prepare(tcp4("192.168.0.1", 32768));
+
+        assertRejected(tcp4("datagram", "192.168.0.2", "192.168.0.254", 32769, 443, "echo"), 1024);
+    }
+
+    @Test
+    public void shouldRejectTcp4DestinationMismatch() throws Exception
+    {
+        template.prepare(tcp4("192.168.0.1", 32768));
+
+        assertRejected(tcp4("stream", "192.168.0.2", "192.168.0.253", 32769, 443, "echo"), 1024);
+    }
+
+    @Test
+    public void shouldRejectTcp4DestinationPortMismatch() throws Exception
+    {
+        template.prepare(tcp4("192.168.0.1", 32768));
+
+        assertRejected(tcp4("stream", "192.168.0.2", "192.168.0.254", 32769, 8443, "echo"), 1024);
+    }
+
+    @Test
+    public void shouldRejectTcp6DestinationMismatch() throws Exception
+    {
+        template.prepare(tcp6("fd12:3456:789a:1::1", 32768));
+
+        assertRejected(tcp6("fd12:3456:789a:1::2", "fd12:3456:789a:2::fe", 32769, 443), 1024);
+    }
+
+    @Test
+    public void shouldRejectTcp6DestinationPortMismatch() throws Exception
+    {
+        template.prepare(tcp6("fd12:3456:789a:1::1", 32768));
+
+        assertRejected(tcp6("fd12:3456:789a:1::2", 32769, 8443), 1024);
+    }
+
+    @Test
+    public void shouldRejectSockStreamDestinationMismatch() throws Exception
+    {
+        template.prepare(sockStream("source-1"));
+
+        assertRejected(sockStream("source-2", "destination-2"), 1024);
+    }
+
+    @Test
+    public void shouldRejectInfosMismatch() throws Exception
+    {
+        template.prepare(tcp4("192.168.0.1", 32768));
+
+        assertRejected(tcp4("stream", "192.168.0.2", "192.168.0.254", 32769, 443, "ohce"), 1024);
+    }
+
+    @Test
+    public void shouldRejectInfosSizeMismatch() throws Exception
+    {
+        template.prepare(tcp4("192.168.0.1", 32768));
+
+        assertRejected(tcp4("stream", "192.168.0.2", "192.168.0.254", 32769, 443, "echo2"), 1024);
+    }
+
+    @Test
+    public void shouldRejectWhenBufferTooSmall() throws Exception
+    {
+        template.prepare(tcp4("192.168.0.1", 32768));
+
+        assertRejected(tcp4("192.168.0.2", 32769), 40);
+    }
+
+    @Test
+    public void shouldRejectWhenNotPrepared() throws Exception
+    {
+        assertRejected(tcp4("192.168.0.1", 32768), 1024);
+    }
+
+    @Test
+    public void shouldRejectWhenPrepareRejected() throws Exception
+    {
+        assertEquals(ENCODE_REJECTED, new ProxyV2Template(encoder, new UnsafeBuffer(new byte[32]))
+                .prepare(tcp4("192.168.0.1", 32768)));
+    }
+
+    private void assertTemplated(
+        ProxyBeginExFW beginEx)
+    {
+        MutableDirectBuffer expected = new UnsafeBuffer(new byte[1024]);
+        MutableDirectBuffer actual = new UnsafeBuffer(new byte[1024]);
+
+        int encoded = new ProxyV2Encoder().crc32c(encoder.crc32c()).encode(beginEx, expected, 0, expected.capacity());
+
+        assertEquals(encoded, template.encode(beginEx, actual, 3, actual.capacity()));
+        assertArrayEquals(Arrays.copyOfRange(expected.byteArray(), 0, encoded),
+                          Arrays.copyOfRange(actual.byteArray(), 3, 3 + encoded));
+    }
+
+    private void assertRejected(
+        ProxyBeginExFW beginEx,
+        int maxLimit)
+    {
+        MutableDirectBuffer buffer = new UnsafeBuffer(new byte[1024]);
+
+        assertEquals(ENCODE_REJECTED, template.encode(beginEx, buffer, 0, maxLimit));
+    }
+
+    private static ProxyBeginExFW tcp4(
+        String source,
+        int sourcePort) throws Exception
+    {
+        return tcp4("stream", source, "192.168.0.254", sourcePort, 443, "echo");
+    }
+
+    private static ProxyBeginExFW tcp4(
+        String protocol,
+        String source,
+        String destination,
+        int sourcePort,
+        int destinationPort,
+        String alpn) throws Exception
+    {
+        return beginEx(ProxyFunctions.beginEx()
+                                     .typeId(0x01)
+                                     .addressInet4()
+                                         .protocol(protocol)
+                                         .source(source)
+                                         .destination(destination)
+                                         .sourcePort(sourcePort)
+                                         .destinationPort(destinationPort)
+                                         .build()
+                                     .info()
+                                         .alpn(alpn)
+                                         .namespace("example")
+                                         .build()
+                                     .build());
+    }
+
+    private static ProxyBeginExFW tcp6(
+        String source,
+        int sourcePort) throws Exception
+    {
+        return tcp6(source, sourcePort, 443);
+    }
+
+    private static ProxyBeginExFW tcp6(
+        String source,
+        int sourcePort,
+        int destinationPort) throws Exception
+    {
+        return tcp6(source, "fd12:3456:789a:1::fe", sourcePort, destinationPort);
+    }
+
+    private static ProxyBeginExFW tcp6(
+        String source,
+        String destination,
+        int sourcePort,
+        int destinationPort) throws Exception
+    {
+        return beginEx(ProxyFunctions.beginEx()
+                                     .typeId(0x01)
+                                     .addressInet6()
+                                         .protocol("stream")
+                                         .source(source)
+                                         .destination(destination)
+                                         .sourcePort(sourcePort)
+                                         .destinationPort(destinationPort)
+                                         .build()
+                                     .info()
+                                         .alpn("echo")
+                                         .build()
+                                     .build());
+    }
+
+    private static ProxyBeginExFW sockStream(
+        String source) throws Exception
+    {
+        return sockStream(source, "destination");
+    }
+
+    private static ProxyBeginExFW sockStream(
+        String source,
+        String destination) throws Exception
+    {
+        return beginEx(ProxyFunctions.beginEx()
+                                     .typeId(0x01)
+                                     .addressUnix()
+                                         .protocol("stream")
+                                         .source(source)
+                                         .destination(destination)
+                                         .build()
+                                     .build());
+    }
+
+    private static ProxyBeginExFW local() throws Exception
+    {
+        return beginEx(ProxyFunctions.beginEx()
+                                     .typeId(0x01)
+                                     .addressNone()
+                                         .build()
+                                     .build());
+    }
+
+    private static ProxyBeginExFW beginEx(
+        byte[] bytes)
+    {
+        return new ProxyBeginExFW().wrap(new UnsafeBuffer(bytes), 0, bytes.length);
+    }
+}
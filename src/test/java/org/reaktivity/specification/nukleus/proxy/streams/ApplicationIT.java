@@ -36,6 +36,24 @@ public class ApplicationIT
     @Rule
     public final TestRule chain = outerRule(k3po).around(timeout);
 
+    @Test
+    @Specification({
+        "${app}/connected.concurrent.100/client",
+        "${app}/connected.concurrent.100/server"})
+    public void shouldConnectConcurrent100() throws Exception
+    {
+        k3po.finish();
+    }
+
+    @Test
+    @Specification({
+        "${app}/connected.concurrent.1000/client",
+        "${app}/connected.concurrent.1000/server"})
+    public void shouldConnectConcurrent1000() throws Exception
+    {
+        k3po.finish();
+    }
+
     @Test
     @Specification({
         "${app}/connected.local/client",
@@ -72,6 +90,24 @@ public class ApplicationIT
         k3po.finish();
     }
 
+    @Test
+    @Specification({
+        "${app}/connected.local.client.sent.data.max/client",
+        "${app}/connected.local.client.sent.data.max/server"})
+    public void shouldConnectLocalClientSendsDataMax() throws Exception
+    {
+        k3po.finish();
+    }
+
+    @Test
+    @Specification({
+        "${app}/connected.local.client.sent.data.coalesced.fragmented/client",
+        "${app}/connected.local.client.sent.data.coalesced.fragmented/server"})
+    public void shouldConnectLocalClientSendsDataCoalescedFragmented() throws Exception
+    {
+        k3po.finish();
+    }
+
     @Test
     @Specification({
         "${app}/connected.local.client.sent.flush/client",
@@ -179,6 +215,24 @@ public class ApplicationIT
         k3po.finish();
     }
 
+    @Test
+    @Specification({
+        "${app}/connected.tcp4.client.sent.data/client",
+        "${app}/connected.tcp4.client.sent.data/server"})
+    public void shouldConnectTcp4ClientSendsData() throws Exception
+    {
+        k3po.finish();
+    }
+
+    @Test
+    @Specification({
+        "${app}/connected.tcp4.client.sent.data.max/client",
+        "${app}/connected.tcp4.client.sent.data.max/server"})
+    public void shouldConnectTcp4ClientSendsDataMax() throws Exception
+    {
+        k3po.finish();
+    }
+
     @Test
     @Specification({
         "${app}/connected.tcp4.alpn/client",
@@ -197,6 +251,15 @@ public class ApplicationIT
         k3po.finish();
     }
 
+    @Test
+    @Specification({
+        "${app}/connected.tcp4.authority.wildcard/client",
+        "${app}/connected.tcp4.authority.wildcard/server"})
+    public void shouldConnectTcp4WithWildcardAuthority() throws Exception
+    {
+        k3po.finish();
+    }
+
     @Test
     @Specification({
         "${app}/connected.tcp4.crc32c/client",
@@ -233,6 +296,42 @@ public class ApplicationIT
         k3po.finish();
     }
 
+    @Test
+    @Specification({
+        "${app}/connected.tcp4.noop.8k/client",
+        "${app}/connected.tcp4.noop.8k/server"})
+    public void shouldConnectTcp4WithNoop8k() throws Exception
+    {
+        k3po.finish();
+    }
+
+    @Test
+    @Specification({
+        "${app}/connected.tcp4.noop.32k/client",
+        "${app}/connected.tcp4.noop.32k/server"})
+    public void shouldConnectTcp4WithNoop32k() throws Exception
+    {
+        k3po.finish();
+    }
+
+    @Test
+    @Specification({
+        "${app}/connected.tcp4.noop.max/client",
+        "${app}/connected.tcp4.noop.max/server"})
+    public void shouldConnectTcp4WithNoopMax() throws Exception
+    {
+        k3po.finish();
+    }
+
+    @Test
+    @Specification({
+        "${app}/connected.tcp4.template/client",
+        "${app}/connected.tcp4.template/server"})
+    public void shouldConnectTcp4WithTemplate() throws Exception
+    {
+        k3po.finish();
+    }
+
     @Test
     @Specification({
         "${app}/connected.tcp4.ssl/client",
@@ -242,6 +341,15 @@ public class ApplicationIT
         k3po.finish();
     }
 
+    @Test
+    @Specification({
+        "${app}/connected.tcp4.ssl.name.wildcard/client",
+        "${app}/connected.tcp4.ssl.name.wildcard/server"})
+    public void shouldConnectTcp4WithSslWildcardName() throws Exception
+    {
+        k3po.finish();
+    }
+
     @Test
     @Specification({
         "${app}/connected.tcp4.ssl.client.cert/client",
@@ -251,6 +359,24 @@ public class ApplicationIT
         k3po.finish();
     }
 
+    @Test
+    @Specification({
+        "${app}/connected.tcp4.ssl.client.cert.connection/client",
+        "${app}/connected.tcp4.ssl.client.cert.connection/server"})
+    public void shouldConnectTcp4WithSslClientCertificateConnection() throws Exception
+    {
+        k3po.finish();
+    }
+
+    @Test
+    @Specification({
+        "${app}/connected.tcp4.ssl.client.cert.not.verified/client",
+        "${app}/connected.tcp4.ssl.client.cert.not.verified/server"})
+    public void shouldConnectTcp4WithSslClientCertificateNotVerified() throws Exception
+    {
+        k3po.finish();
+    }
+
     @Test
     @Specification({
         "${app}/connected.tcp4.ssl.client.cert.session/client",
@@ -287,6 +413,42 @@ public class ApplicationIT
         k3po.finish();
     }
 
+    @Test
+    @Specification({
+        "${app}/connected.tcp4.port.range/client",
+        "${app}/connected.tcp4.port.range/server"})
+    public void shouldConnectTcp4PortRange() throws Exception
+    {
+        k3po.finish();
+    }
+
+    @Test
+    @Specification({
+        "${app}/connected.tcp4.cidr.fallback/client",
+        "${app}/connected.tcp4.cidr.fallback/server"})
+    public void shouldConnectTcp4CidrFallback() throws Exception
+    {
+        k3po.finish();
+    }
+
+    @Test
+    @Specification({
+        "${app}/connected.tcp4.cidr.destination.longest/client",
+        "${app}/connected.tcp4.cidr.destination.longest/server"})
+    public void shouldConnectTcp4CidrDestinationLongest() throws Exception
+    {
+        k3po.finish();
+    }
+
+    @Test
+    @Specification({
+        "${app}/connected.tcp4.cidr.destination.fallback/client",
+        "${app}/connected.tcp4.cidr.destination.fallback/server"})
+    public void shouldConnectTcp4CidrDestinationFallback() throws Exception
+    {
+        k3po.finish();
+    }
+
     @Test
     @Specification({
         "${app}/connected.udp4/client",
@@ -296,6 +458,51 @@ public class ApplicationIT
         k3po.finish();
     }
 
+    @Test
+    @Specification({
+        "${app}/connected.tcp4.window.1/client",
+        "${app}/connected.tcp4.window.1/server"})
+    public void shouldConnectTcp4WithWindow1() throws Exception
+    {
+        k3po.finish();
+    }
+
+    @Test
+    @Specification({
+        "${app}/connected.tcp4.window.16/client",
+        "${app}/connected.tcp4.window.16/server"})
+    public void shouldConnectTcp4WithWindow16() throws Exception
+    {
+        k3po.finish();
+    }
+
+    @Test
+    @Specification({
+        "${app}/connected.tcp4.window.64/client",
+        "${app}/connected.tcp4.window.64/server"})
+    public void shouldConnectTcp4WithWindow64() throws Exception
+    {
+        k3po.finish();
+    }
+
+    @Test
+    @Specification({
+        "${app}/connected.tcp4.window.64.padding.16/client",
+        "${app}/connected.tcp4.window.64.padding.16/server"})
+    public void shouldConnectTcp4WithWindow64Padding16() throws Exception
+    {
+        k3po.finish();
+    }
+
+    @Test
+    @Specification({
+        "${app}/connected.tcp4.window.64.padding.16.data.max/client",
+        "${app}/connected.tcp4.window.64.padding.16.data.max/server"})
+    public void shouldConnectTcp4WithWindow64Padding16DataMax() throws Exception
+    {
+        k3po.finish();
+    }
+
     @Test
     @Specification({
         "${app}/connected.tcp6/client",
@@ -314,6 +521,33 @@ public class ApplicationIT
         k3po.finish();
     }
 
+    @Test
+    @Specification({
+        "${app}/connected.tcp6.cidr.fallback/client",
+        "${app}/connected.tcp6.cidr.fallback/server"})
+    public void shouldConnectTcp6CidrFallback() throws Exception
+    {
+        k3po.finish();
+    }
+
+    @Test
+    @Specification({
+        "${app}/connected.tcp6.cidr.destination.longest/client",
+        "${app}/connected.tcp6.cidr.destination.longest/server"})
+    public void shouldConnectTcp6CidrDestinationLongest() throws Exception
+    {
+        k3po.finish();
+    }
+
+    @Test
+    @Specification({
+        "${app}/connected.tcp6.cidr.destination.fallback/client",
+        "${app}/connected.tcp6.cidr.destination.fallback/server"})
+    public void shouldConnectTcp6CidrDestinationFallback() throws Exception
+    {
+        k3po.finish();
+    }
+
     @Test
     @Specification({
         "${app}/connected.udp6/client",
@@ -340,4 +574,22 @@ public class ApplicationIT
     {
         k3po.finish();
     }
+
+    @Test
+    @Specification({
+        "${app}/connected.passthrough/client",
+        "${app}/connected.passthrough/server"})
+    public void shouldConnectPassthrough() throws Exception
+    {
+        k3po.finish();
+    }
+
+    @Test
+    @Specification({
+        "${app}/connected.passthrough.partial.signature/client",
+        "${app}/connected.passthrough.partial.signature/server"})
+    public void shouldConnectPassthroughPartialSignature() throws Exception
+    {
+        k3po.finish();
+    }
 }
@@ -0,0 +1,353 @@
+/**
+ * Copyright 2016-2021 The Reaktivity Project
+ *
+ * The Reaktivity Project licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package org.reaktivity.specification.nukleus.proxy.streams;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Generates the {@code connected.concurrent.100} and {@code connected.concurrent.1000} scripts in
+ * {@code network.v2} and {@code application}, which are too large to maintain by hand.
+ * <p>
+ * Each stream cycles through tcp4, tcp6, sock_stream and local, with a distinct source port or source path.
+ * Network streams open one after another, chained by {@code CONNECTED_<n>}, each holding only the signature.
+ * Once all are open, every stream writes its header except the last field concurrently, then completes the
+ * header in stream order, chained by {@code HEADER_<n>}, because k3po matches accepted app streams in arrival
+ * order.
+ * <p>
+ * Regenerate from the project root with
+ * <pre>
+ * ./mvnw test-compile
+ * java -cp target/test-classes org.reaktivity.specification.nukleus.proxy.streams.ConcurrentScriptGenerator
+ * </pre>
+ */
+public final class ConcurrentScriptGenerator
+{
+    private static final String SCRIPTS = "src/main/scripts/org/reaktivity/specification/nukleus/proxy/streams";
+
+    private static final String[] KINDS = { "tcp4", "tcp6", "sock.stream", "local" };
+    private static final int[] COUNTS = { 100, 1000 };
+
+    private static final int COMMENT_COLUMN = 52;
+    private static final String LEAD = "      ";
+
+    private static final String SIGNATURE = "\"\\r\\n\\r\\n\" [0x00] \"\\r\\n\" \"QUIT\" \"\\n\"";
+
+    public static void main(
+        String... args) throws IOException
+    {
+        final Path root = Paths.get(args.length > 0 ? args[0] : SCRIPTS);
+        final String license = license(root.resolve("network.v2/connected.tcp4/client.rpt"));
+
+        for (int count : COUNTS)
+        {
+            final String name = "connected.concurrent." + count;
+
+            write(root.resolve("network.v2").resolve(name).resolve("client.rpt"), license, networkClient(count));
+            write(root.resolve("network.v2").resolve(name).resolve("server.rpt"), license, networkServer(count));
+            write(root.resolve("application").resolve(name).resolve("client.rpt"), license, applicationClient(count));
+            write(root.resolve("application").resolve(name).resolve("server.rpt"), license, applicationServer(count));
+        }
+    }
+
+    private static List<String> networkClient(
+        int count)
+    {
+        final List<String> out = new ArrayList<>();
+        for (int i = 0; i < count; i++)
+        {
+            final List<String> header = header(i);
+
+            out.addAll(connect("nukleus://streams/net#0", i));
+            out.add("connected");
+            out.add("");
+            out.add(comment("write " + SIGNATURE, "# header"));
+            out.add("write flush");
+            out.add("write notify CONNECTED_" + i);
+            out.add("");
+            out.add("write await CONNECTED_" + (count - 1));
+            out.addAll(statement("write", header.subList(0, header.size() - 1)));
+            out.add("write flush");
+            out.add("");
+            if (i > 0)
+            {
+                out.add("write await HEADER_" + (i - 1));
+            }
+            out.addAll(statement("write", header.subList(header.size() - 1, header.size())));
+            out.add("write flush");
+            out.add("write notify HEADER_" + i);
+            out.add("");
+        }
+        return out;
+    }
+
+    private static List<String> networkServer(
+        int count)
+    {
+        final List<String> out = accept("nukleus://streams/net#0");
+        for (int i = 0; i < count; i++)
+        {
+            out.add("accepted");
+            out.add("");
+            out.add("connected");
+            out.add("");
+            out.add(comment("read " + SIGNATURE, "# header"));
+            header(i).forEach(line -> out.add("     " + line.substring(LEAD.length())));
+            out.add("");
+        }
+        return out;
+    }
+
+    private static List<String> applicationClient(
+        int count)
+    {
+        final List<String> out = new ArrayList<>();
+        final String lead = " ".repeat(31);
+        for (int i = 0; i < count; i++)
+        {
+            out.addAll(connect("nukleus://streams/app#0", i));
+            out.add("");
+            out.add("write nukleus:begin.ext ${proxy:beginEx()");
+            out.add(lead + ".typeId(nukleus:id(\"proxy\"))");
+            out.addAll(address(i, lead));
+            out.add(lead + ".build()}");
+            out.add("");
+            out.add("connected");
+            out.add("");
+            out.add("write notify CONNECTED_" + i);
+            out.add("");
+        }
+        return out;
+    }
+
+    private static List<String> applicationServer(
+        int count)
+    {
+        final List<String> out = accept("nukleus://streams/app#0");
+        final String lead = " ".repeat(30);
+        for (int i = 0; i < count; i++)
+        {
+            out.add("accepted");
+            out.add("");
+            out.add("read nukleus:begin.ext ${proxy:matchBeginEx()");
+            out.add(lead + ".typeId(nukleus:id(\"proxy\"))");
+            out.addAll(address(i, lead));
+            out.add(lead + ".build()}");
+            out.add("");
+            out.add("connected");
+            out.add("");
+        }
+        return out;
+    }
+
+    private static List<String> connect(
+        String uri,
+        int i)
+    {
+        final List<String> out = new ArrayList<>();
+        if (i == 0)
+        {
+            out.add(String.format("connect \"%s\"", uri));
+        }
+        else
+        {
+            out.add("connect await CONNECTED_" + (i - 1));
+            out.add(String.format("        \"%s\"", uri));
+        }
+        out.add("    option nukleus:window 8192");
+        out.add("    option nukleus:transmission \"half-duplex\"");
+        return out;
+    }
+
+    private static List<String> accept(
+        String uri)
+    {
+        final List<String> out = new ArrayList<>();
+        out.add(String.format("accept \"%s\"", uri));
+        out.add("       option nukleus:window 8192");
+        out.add("       option nukleus:transmission \"half-duplex\"");
+        out.add("");
+        return out;
+    }
+
+    private static List<String> header(
+        int i)
+    {
+        final int port = 32768 + i;
+        final List<String> out = new ArrayList<>();
+
+        switch (KINDS[i % KINDS.length])
+        {
+        case "tcp4":
+            out.add(comment(LEAD + "[0x21]", "# version = 2, command = proxy"));
+            out.add(comment(LEAD + "[0x11]", "# protocol = tcp4"));
+            out.add(comment(LEAD + "[0x00 0x0c]", "# length"));
+            out.add(comment(LEAD + "[0xc0 0xa8 0x00 0x01]", "# source address = 192.168.0.1"));
+            out.add(comment(LEAD + "[0xc0 0xa8 0x00 0xfe]", "# destination address = 192.168.0.254"));
+            out.add(comment(LEAD + hex(port >> 8, port & 0xff), "# source port = " + port));
+            out.add(comment(LEAD + "[0x01 0xbb]", "# destination port = 443"));
+            break;
+        case "tcp6":
+            out.add(comment(LEAD + "[0x21]", "# version = 2, command = proxy"));
+            out.add(comment(LEAD + "[0x21]", "# protocol = tcp6"));
+            out.add(comment(LEAD + "[0x00 0x24]", "# length"));
+            out.add(comment(LEAD + "[0xfd 0x12 0x34 0x56 0x78 0x9a 0x00 0x01]", "# source address = fd12:3456:789a:1::1"));
+            out.add(LEAD + "[0x00 0x00 0x00 0x00 0x00 0x00 0x00 0x01]");
+            out.add(comment(LEAD + "[0xfd 0x12 0x34 0x56 0x78 0x9a 0x00 0x01]", "# destination address = fd12:3456:789a:1::fe"));
+            out.add(LEAD + "[0x00 0x00 0x00 0x00 0x00 0x00 0x00 0xfe]");
+            out.add(comment(LEAD + hex(port >> 8, port & 0xff), "# source port = " + port));
+            out.add(comment(LEAD + "[0x01 0xbb]", "# destination port = 443"));
+            break;
+        case "sock.stream":
+            out.add(comment(LEAD + "[0x21]", "# version = 2, command = proxy"));
+            out.add(comment(LEAD + "[0x31]", "# protocol = sock_stream"));
+            out.add(comment(LEAD + "[0x00 0xd8]", "# length"));
+            out.addAll(padded(String.format("source-%04d", i), "# source address"));
+            out.addAll(padded("destination", "# destination address"));
+            break;
+        default:
+            out.add(comment(LEAD + "[0x20]", "# version = 2, command = local"));
+            out.add(comment(LEAD + "[0x00]", "# protocol = unspecified"));
+            out.add(comment(LEAD + "[0x00 0x00]", "# length"));
+            break;
+        }
+
+        return out;
+    }
+
+    private static List<String> padded(
+        String path,
+        String comment)
+    {
+        final List<String> out = new ArrayList<>();
+        out.add(comment(LEAD + '"' + path + '"', comment));
+        for (int rest = 108 - path.length(); rest > 0; rest -= 8)
+        {
+            out.add(LEAD + hex(new int[Math.min(8, rest)]));
+        }
+        return out;
+    }
+
+    private static List<String> address(
+        int i,
+        String lead)
+    {
+        final int port = 32768 + i;
+        final List<String> out = new ArrayList<>();
+
+        switch (KINDS[i % KINDS.length])
+        {
+        case "tcp4":
+            out.add(lead + ".addressInet4()");
+            out.add(lead + "  .protocol(\"stream\")");
+            out.add(lead + "  .source(\"192.168.0.1\")");
+            out.add(lead + "  .destination(\"192.168.0.254\")");
+            out.add(lead + "  .sourcePort(" + port + ")");
+            out.add(lead + "  .destinationPort(443)");
+            break;
+        case "tcp6":
+            out.add(lead + ".addressInet6()");
+            out.add(lead + "  .protocol(\"stream\")");
+            out.add(lead + "  .source(\"fd12:3456:789a:1::1\")");
+            out.add(lead + "  .destination(\"fd12:3456:789a:1::fe\")");
+            out.add(lead + "  .sourcePort(" + port + ")");
+            out.add(lead + "  .destinationPort(443)");
+            break;
+        case "sock.stream":
+            out.add(lead + ".addressUnix()");
+            out.add(lead + "  .protocol(\"stream\")");
+            out.add(lead + String.format("  .source(\"source-%04d\")", i));
+            out.add(lead + "  .destination(\"destination\")");
+            break;
+        default:
+            out.add(lead + ".addressNone()");
+            break;
+        }
+        out.add(lead + "  .build()");
+
+        return out;
+    }
+
+    private static List<String> statement(
+        String keyword,
+        List<String> lines)
+    {
+        final List<String> out = new ArrayList<>(lines);
+        out.set(0, keyword + " " + out.get(0).substring(keyword.length() + 1));
+        return out;
+    }
+
+    private static String comment(
+        String code,
+        String comment)
+    {
+        final StringBuilder line = new StringBuilder(code);
+        while (line.length() < COMMENT_COLUMN)
+        {
+            line.append(' ');
+        }
+        return line.append(comment).toString();
+    }
+
+    private static String hex(
+        int... octets)
+    {
+        final StringBuilder hex = new StringBuilder("[");
+        for (int octet : octets)
+        {
+            hex.append(hex.length() > 1 ? " " : "").append(String.format("0x%02x", octet));
+        }
+        return hex.append(']').toString();
+    }
+
+    private static String license(
+        Path script) throws IOException
+    {
+        final String text = new String(Files.readAllBytes(script), UTF_8);
+        return text.substring(0, text.indexOf("\n\n"));
+    }
+
+    private static void write(
+        Path script,
+        String license,
+        List<String> lines) throws IOException
+    {
+        final List<String> trimmed = new ArrayList<>(lines);
+        while (!trimmed.isEmpty() && trimmed.get(trimmed.size() - 1).isEmpty())
+        {
+            trimmed.remove(trimmed.size() - 1);
+        }
+
+        final List<String> text = new ArrayList<>(Collections.singletonList(license));
+        text.add("");
+        text.addAll(trimmed);
+
+        Files.createDirectories(script.getParent());
+        Files.write(script, (String.join("\n", text) + "\n").getBytes(UTF_8));
+    }
+
+    private ConcurrentScriptGenerator()
+    {
+        // utility
+    }
+}
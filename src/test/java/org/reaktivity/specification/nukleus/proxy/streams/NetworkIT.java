@@ -36,6 +36,24 @@ public class NetworkIT
     @Rule
     public final TestRule chain = outerRule(k3po).around(timeout);
 
+    @Test
+    @Specification({
+        "${net}/connected.concurrent.100/client",
+        "${net}/connected.concurrent.100/server"})
+    public void shouldConnectConcurrent100() throws Exception
+    {
+        k3po.finish();
+    }
+
+    @Test
+    @Specification({
+        "${net}/connected.concurrent.1000/client",
+        "${net}/connected.concurrent.1000/server"})
+    public void shouldConnectConcurrent1000() throws Exception
+    {
+        k3po.finish();
+    }
+
     @Test
     @Specification({
         "${net}/connected.local/client",
@@ -99,6 +117,51 @@ public class NetworkIT
         k3po.finish();
     }
 
+    @Test
+    @Specification({
+        "${net}/connected.local.client.sent.data.coalesced/client",
+        "${net}/connected.local.client.sent.data.coalesced/server"})
+    public void shouldConnectLocalClientSendsDataCoalesced() throws Exception
+    {
+        k3po.finish();
+    }
+
+    @Test
+    @Specification({
+        "${net}/connected.local.client.sent.data.coalesced.max/client",
+        "${net}/connected.local.client.sent.data.coalesced.max/server"})
+    public void shouldConnectLocalClientSendsDataCoalescedMax() throws Exception
+    {
+        k3po.finish();
+    }
+
+    @Test
+    @Specification({
+        "${net}/connected.local.client.sent.data.coalesced.fragmented/client",
+        "${net}/connected.local.client.sent.data.coalesced.fragmented/server"})
+    public void shouldConnectLocalClientSendsDataCoalescedFragmented() throws Exception
+    {
+        k3po.finish();
+    }
+
+    @Test
+    @Specification({
+        "${net}/connected.tcp4.client.sent.data.coalesced/client",
+        "${net}/connected.tcp4.client.sent.data.coalesced/server"})
+    public void shouldConnectTcp4ClientSendsDataCoalesced() throws Exception
+    {
+        k3po.finish();
+    }
+
+    @Test
+    @Specification({
+        "${net}/connected.tcp4.client.sent.data.coalesced.max/client",
+        "${net}/connected.tcp4.client.sent.data.coalesced.max/server"})
+    public void shouldConnectTcp4ClientSendsDataCoalescedMax() throws Exception
+    {
+        k3po.finish();
+    }
+
     @Test
     @Specification({
         "${net}/connected.local.client.sent.flush/client",
@@ -198,6 +261,15 @@ public class NetworkIT
         k3po.finish();
     }
 
+    @Test
+    @Specification({
+        "${net}/connected.tcp4.authority.wildcard/client",
+        "${net}/connected.tcp4.authority.wildcard/server"})
+    public void shouldConnectTcp4WithWildcardAuthority() throws Exception
+    {
+        k3po.finish();
+    }
+
     @Test
     @Specification({
         "${net}/connected.tcp4.crc32c/client",
@@ -234,6 +306,42 @@ public class NetworkIT
         k3po.finish();
     }
 
+    @Test
+    @Specification({
+        "${net}/connected.tcp4.noop.8k/client",
+        "${net}/connected.tcp4.noop.8k/server"})
+    public void shouldConnectTcp4WithNoop8k() throws Exception
+    {
+        k3po.finish();
+    }
+
+    @Test
+    @Specification({
+        "${net}/connected.tcp4.noop.32k/client",
+        "${net}/connected.tcp4.noop.32k/server"})
+    public void shouldConnectTcp4WithNoop32k() throws Exception
+    {
+        k3po.finish();
+    }
+
+    @Test
+    @Specification({
+        "${net}/connected.tcp4.noop.max/client",
+        "${net}/connected.tcp4.noop.max/server"})
+    public void shouldConnectTcp4WithNoopMax() throws Exception
+    {
+        k3po.finish();
+    }
+
+    @Test
+    @Specification({
+        "${net}/connected.tcp4.template/client",
+        "${net}/connected.tcp4.template/server"})
+    public void shouldConnectTcp4WithTemplate() throws Exception
+    {
+        k3po.finish();
+    }
+
     @Test
     @Specification({
         "${net}/connected.tcp4.ssl/client",
@@ -243,6 +351,15 @@ public class NetworkIT
         k3po.finish();
     }
 
+    @Test
+    @Specification({
+        "${net}/connected.tcp4.ssl.name.wildcard/client",
+        "${net}/connected.tcp4.ssl.name.wildcard/server"})
+    public void shouldConnectTcp4WithSslWildcardName() throws Exception
+    {
+        k3po.finish();
+    }
+
     @Test
     @Specification({
         "${net}/connected.tcp4.ssl.client.cert/client",
@@ -252,6 +369,24 @@ public class NetworkIT
         k3po.finish();
     }
 
+    @Test
+    @Specification({
+        "${net}/connected.tcp4.ssl.client.cert.connection/client",
+        "${net}/connected.tcp4.ssl.client.cert.connection/server"})
+    public void shouldConnectTcp4WithSslClientCertificateConnection() throws Exception
+    {
+        k3po.finish();
+    }
+
+    @Test
+    @Specification({
+        "${net}/connected.tcp4.ssl.client.cert.not.verified/client",
+        "${net}/connected.tcp4.ssl.client.cert.not.verified/server"})
+    public void shouldConnectTcp4WithSslClientCertificateNotVerified() throws Exception
+    {
+        k3po.finish();
+    }
+
     @Test
     @Specification({
         "${net}/connected.tcp4.ssl.client.cert.session/client",
@@ -279,6 +414,42 @@ public class NetworkIT
         k3po.finish();
     }
 
+    @Test
+    @Specification({
+        "${net}/connected.tcp4.port.range/client",
+        "${net}/connected.tcp4.port.range/server"})
+    public void shouldConnectTcp4PortRange() throws Exception
+    {
+        k3po.finish();
+    }
+
+    @Test
+    @Specification({
+        "${net}/connected.tcp4.cidr.fallback/client",
+        "${net}/connected.tcp4.cidr.fallback/server"})
+    public void shouldConnectTcp4CidrFallback() throws Exception
+    {
+        k3po.finish();
+    }
+
+    @Test
+    @Specification({
+        "${net}/connected.tcp4.cidr.destination.longest/client",
+        "${net}/connected.tcp4.cidr.destination.longest/server"})
+    public void shouldConnectTcp4CidrDestinationLongest() throws Exception
+    {
+        k3po.finish();
+    }
+
+    @Test
+    @Specification({
+        "${net}/connected.tcp4.cidr.destination.fallback/client",
+        "${net}/connected.tcp4.cidr.destination.fallback/server"})
+    public void shouldConnectTcp4CidrDestinationFallback() throws Exception
+    {
+        k3po.finish();
+    }
+
     @Test
     @Specification({
         "${net}/connected.udp4/client",
@@ -288,6 +459,51 @@ public class NetworkIT
         k3po.finish();
     }
 
+    @Test
+    @Specification({
+        "${net}/connected.tcp4.window.1/client",
+        "${net}/connected.tcp4.window.1/server"})
+    public void shouldConnectTcp4WithWindow1() throws Exception
+    {
+        k3po.finish();
+    }
+
+    @Test
+    @Specification({
+        "${net}/connected.tcp4.window.16/client",
+        "${net}/connected.tcp4.window.16/server"})
+    public void shouldConnectTcp4WithWindow16() throws Exception
+    {
+        k3po.finish();
+    }
+
+    @Test
+    @Specification({
+        "${net}/connected.tcp4.window.64/client",
+        "${net}/connected.tcp4.window.64/server"})
+    public void shouldConnectTcp4WithWindow64() throws Exception
+    {
+        k3po.finish();
+    }
+
+    @Test
+    @Specification({
+        "${net}/connected.tcp4.window.64.padding.16/client",
+        "${net}/connected.tcp4.window.64.padding.16/server"})
+    public void shouldConnectTcp4WithWindow64Padding16() throws Exception
+    {
+        k3po.finish();
+    }
+
+    @Test
+    @Specification({
+        "${net}/connected.tcp4.window.64.padding.16.data.max/client",
+        "${net}/connected.tcp4.window.64.padding.16.data.max/server"})
+    public void shouldConnectTcp4WithWindow64Padding16DataMax() throws Exception
+    {
+        k3po.finish();
+    }
+
     @Test
     @Specification({
         "${net}/connected.tcp6/client",
@@ -297,6 +513,33 @@ public class NetworkIT
         k3po.finish();
     }
 
+    @Test
+    @Specification({
+        "${net}/connected.tcp6.cidr.fallback/client",
+        "${net}/connected.tcp6.cidr.fallback/server"})
+    public void shouldConnectTcp6CidrFallback() throws Exception
+    {
+        k3po.finish();
+    }
+
+    @Test
+    @Specification({
+        "${net}/connected.tcp6.cidr.destination.longest/client",
+        "${net}/connected.tcp6.cidr.destination.longest/server"})
+    public void shouldConnectTcp6CidrDestinationLongest() throws Exception
+    {
+        k3po.finish();
+    }
+
+    @Test
+    @Specification({
+        "${net}/connected.tcp6.cidr.destination.fallback/client",
+        "${net}/connected.tcp6.cidr.destination.fallback/server"})
+    public void shouldConnectTcp6CidrDestinationFallback() throws Exception
+    {
+        k3po.finish();
+    }
+
     @Test
     @Specification({
         "${net}/connected.udp6/client",
@@ -324,6 +567,69 @@ public class NetworkIT
         k3po.finish();
     }
 
+    @Test
+    @Specification({
+        "${net}/connected.tcp4.split.bytes/client",
+        "${net}/connected.tcp4.split.bytes/server"})
+    public void shouldConnectTcp4SplitBytes() throws Exception
+    {
+        k3po.finish();
+    }
+
+    @Test
+    @Specification({
+        "${net}/connected.tcp4.split.signature/client",
+        "${net}/connected.tcp4.split.signature/server"})
+    public void shouldConnectTcp4SplitSignature() throws Exception
+    {
+        k3po.finish();
+    }
+
+    @Test
+    @Specification({
+        "${net}/connected.tcp4.split.address/client",
+        "${net}/connected.tcp4.split.address/server"})
+    public void shouldConnectTcp4SplitAddress() throws Exception
+    {
+        k3po.finish();
+    }
+
+    @Test
+    @Specification({
+        "${net}/connected.tcp4.alpn.split.tlv.length/client",
+        "${net}/connected.tcp4.alpn.split.tlv.length/server"})
+    public void shouldConnectTcp4WithAlpnSplitTlvLength() throws Exception
+    {
+        k3po.finish();
+    }
+
+    @Test
+    @Specification({
+        "${net}/connected.tcp4.ssl.split.sub.tlv/client",
+        "${net}/connected.tcp4.ssl.split.sub.tlv/server"})
+    public void shouldConnectTcp4WithSslSplitSubTlv() throws Exception
+    {
+        k3po.finish();
+    }
+
+    @Test
+    @Specification({
+        "${net}/connected.passthrough/client",
+        "${net}/connected.passthrough/server"})
+    public void shouldConnectPassthrough() throws Exception
+    {
+        k3po.finish();
+    }
+
+    @Test
+    @Specification({
+        "${net}/connected.passthrough.partial.signature/client",
+        "${net}/connected.passthrough.partial.signature/server"})
+    public void shouldConnectPassthroughPartialSignature() throws Exception
+    {
+        k3po.finish();
+    }
+
     @Test
     @Specification({
         "${net}/rejected.header.mismatch/client",
@@ -333,6 +639,24 @@ public class NetworkIT
         k3po.finish();
     }
 
+    @Test
+    @Specification({
+        "${net}/rejected.header.timeout/client",
+        "${net}/rejected.header.timeout/server"})
+    public void shouldRejectHeaderTimeout() throws Exception
+    {
+        k3po.finish();
+    }
+
+    @Test
+    @Specification({
+        "${net}/rejected.header.too.large/client",
+        "${net}/rejected.header.too.large/server"})
+    public void shouldRejectHeaderTooLarge() throws Exception
+    {
+        k3po.finish();
+    }
+
     @Test
     @Specification({
         "${net}/rejected.header.version.mismatch/client",
@@ -369,6 +693,24 @@ public class NetworkIT
         k3po.finish();
     }
 
+    @Test
+    @Specification({
+        "${net}/rejected.tcp4.tlv.underflow/client",
+        "${net}/rejected.tcp4.tlv.underflow/server"})
+    public void shouldRejectTcp4WithTlvUnderflow() throws Exception
+    {
+        k3po.finish();
+    }
+
+    @Test
+    @Specification({
+        "${net}/rejected.tcp4.tlv.overflow/client",
+        "${net}/rejected.tcp4.tlv.overflow/server"})
+    public void shouldRejectTcp4WithTlvOverflow() throws Exception
+    {
+        k3po.finish();
+    }
+
     @Test
     @Specification({
         "${net}/rejected.tcp4.ssl.underflow/client",
@@ -0,0 +1,146 @@
+/**
+ * Copyright 2016-2021 The Reaktivity Project
+ *
+ * The Reaktivity Project licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package org.reaktivity.specification.nukleus.proxy.streams;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.junit.rules.RuleChain.outerRule;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.DisableOnDebug;
+import org.junit.rules.TestRule;
+import org.junit.rules.Timeout;
+import org.kaazing.k3po.junit.annotation.Specification;
+import org.kaazing.k3po.junit.rules.K3poRule;
+
+public class NetworkV1IT
+{
+    private final K3poRule k3po = new K3poRule()
+        .addScriptRoot("net", "org/reaktivity/specification/nukleus/proxy/streams/network.v1");
+
+    private final TestRule timeout = new DisableOnDebug(new Timeout(5, SECONDS));
+
+    @Rule
+    public final TestRule chain = outerRule(k3po).around(timeout);
+
+    @Test
+    @Specification({
+        "${net}/connected.tcp4/client",
+        "${net}/connected.tcp4/server"})
+    public void shouldConnectTcp4() throws Exception
+    {
+        k3po.finish();
+    }
+
+    @Test
+    @Specification({
+        "${net}/connected.tcp4.client.sent.data/client",
+        "${net}/connected.tcp4.client.sent.data/server"})
+    public void shouldConnectTcp4ClientSendsData() throws Exception
+    {
+        k3po.finish();
+    }
+
+    @Test
+    @Specification({
+        "${net}/connected.tcp6/client",
+        "${net}/connected.tcp6/server"})
+    public void shouldConnectTcp6() throws Exception
+    {
+        k3po.finish();
+    }
+
+    @Test
+    @Specification({
+        "${net}/connected.unknown/client",
+        "${net}/connected.unknown/server"})
+    public void shouldConnectUnknown() throws Exception
+    {
+        k3po.finish();
+    }
+
+    @Test
+    @Specification({
+        "${net}/connected.unknown.max/client",
+        "${net}/connected.unknown.max/server"})
+    public void shouldConnectUnknownMax() throws Exception
+    {
+        k3po.finish();
+    }
+
+    @Test
+    @Specification({
+        "${net}/rejected.header.mismatch/client",
+        "${net}/rejected.header.mismatch/server"})
+    public void shouldRejectHeaderMismatch() throws Exception
+    {
+        k3po.finish();
+    }
+
+    @Test
+    @Specification({
+        "${net}/rejected.protocol.mismatch/client",
+        "${net}/rejected.protocol.mismatch/server"})
+    public void shouldRejectProtocolMismatch() throws Exception
+    {
+        k3po.finish();
+    }
+
+    @Test
+    @Specification({
+        "${net}/rejected.address.mismatch/client",
+        "${net}/rejected.address.mismatch/server"})
+    public void shouldRejectAddressMismatch() throws Exception
+    {
+        k3po.finish();
+    }
+
+    @Test
+    @Specification({
+        "${net}/rejected.address.family.mismatch/client",
+        "${net}/rejected.address.family.mismatch/server"})
+    public void shouldRejectAddressFamilyMismatch() throws Exception
+    {
+        k3po.finish();
+    }
+
+    @Test
+    @Specification({
+        "${net}/rejected.port.mismatch/client",
+        "${net}/rejected.port.mismatch/server"})
+    public void shouldRejectPortMismatch() throws Exception
+    {
+        k3po.finish();
+    }
+
+    @Test
+    @Specification({
+        "${net}/rejected.line.mismatch/client",
+        "${net}/rejected.line.mismatch/server"})
+    public void shouldRejectLineMismatch() throws Exception
+    {
+        k3po.finish();
+    }
+
+    @Test
+    @Specification({
+        "${net}/rejected.line.overflow/client",
+        "${net}/rejected.line.overflow/server"})
+    public void shouldRejectLineOverflow() throws Exception
+    {
+        k3po.finish();
+    }
+}
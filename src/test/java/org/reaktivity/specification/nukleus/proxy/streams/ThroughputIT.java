@@ -0,0 +1,101 @@
+/**
+ * Copyright 2016-2021 The Reaktivity Project
+ *
+ * The Reaktivity Project licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package org.reaktivity.specification.nukleus.proxy.streams;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.junit.rules.RuleChain.outerRule;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.DisableOnDebug;
+import org.junit.rules.TestRule;
+import org.junit.rules.Timeout;
+import org.kaazing.k3po.junit.annotation.Specification;
+import org.kaazing.k3po.junit.rules.K3poRule;
+
+/**
+ * Pumps 64 MiB in each direction at once, in 8 KiB frames, through an established stream, as a baseline for
+ * the same scenarios run through the proxy nukleus. Also pumps 1 MiB in each direction through a 1 byte window,
+ * and through a 16 byte window with 8 bytes of padding, which take too many frames for the default timeout.
+ * <p>
+ * Runs only with the {@code throughput} profile and only reports, without asserting against a baseline: the
+ * sustained throughput is the 128 MiB payload divided by the elapsed time in the failsafe report.
+ */
+public class ThroughputIT
+{
+    private final K3poRule k3po = new K3poRule()
+        .addScriptRoot("net", "org/reaktivity/specification/nukleus/proxy/streams/network.v2")
+        .addScriptRoot("app", "org/reaktivity/specification/nukleus/proxy/streams/application");
+
+    private final TestRule timeout = new DisableOnDebug(new Timeout(60, SECONDS));
+
+    @Rule
+    public final TestRule chain = outerRule(k3po).around(timeout);
+
+    @Test
+    @Specification({
+        "${net}/connected.local.sustained.data/client",
+        "${net}/connected.local.sustained.data/server"})
+    public void shouldConnectLocalWithSustainedNetworkData() throws Exception
+    {
+        k3po.finish();
+    }
+
+    @Test
+    @Specification({
+        "${app}/connected.local.sustained.data/client",
+        "${app}/connected.local.sustained.data/server"})
+    public void shouldConnectLocalWithSustainedApplicationData() throws Exception
+    {
+        k3po.finish();
+    }
+
+    @Test
+    @Specification({
+        "${net}/connected.tcp4.window.1.data.max/client",
+        "${net}/connected.tcp4.window.1.data.max/server"})
+    public void shouldConnectTcp4WithWindow1NetworkDataMax() throws Exception
+    {
+        k3po.finish();
+    }
+
+    @Test
+    @Specification({
+        "${app}/connected.tcp4.window.1.data.max/client",
+        "${app}/connected.tcp4.window.1.data.max/server"})
+    public void shouldConnectTcp4WithWindow1ApplicationDataMax() throws Exception
+    {
+        k3po.finish();
+    }
+
+    @Test
+    @Specification({
+        "${net}/connected.tcp4.window.16.padding.8.data.max/client",
+        "${net}/connected.tcp4.window.16.padding.8.data.max/server"})
+    public void shouldConnectTcp4WithWindow16Padding8NetworkDataMax() throws Exception
+    {
+        k3po.finish();
+    }
+
+    @Test
+    @Specification({
+        "${app}/connected.tcp4.window.16.padding.8.data.max/client",
+        "${app}/connected.tcp4.window.16.padding.8.data.max/server"})
+    public void shouldConnectTcp4WithWindow16Padding8ApplicationDataMax() throws Exception
+    {
+        k3po.finish();
+    }
+}